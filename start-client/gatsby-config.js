@@ -9,6 +9,7 @@ const siteMetadata = {
   image: `https://cocky-roentgen-4351af.netlify.com/images/initializr-card.jpg`,
   apiUrl: isDev ? `/api.json` : `/metadata/client`,
   apiZip: `/starter.zip`,
+  apiPreview: `/starter.preview`,
 }
 
 const plugins = [
@@ -0,0 +1,57 @@
+// Write gzip and brotli variants of the assets of the site next to them so
+// that they can be served without being compressed on each request.
+const fs = require('fs')
+const path = require('path')
+const zlib = require('zlib')
+
+const PUBLIC_DIR = path.join(__dirname, '..', 'public')
+const EXTENSIONS = [
+  '.css',
+  '.html',
+  '.js',
+  '.json',
+  '.map',
+  '.svg',
+  '.txt',
+  '.webmanifest',
+]
+const MIN_SIZE = 1024
+
+const walk = dir =>
+  fs.readdirSync(dir).reduce((files, name) => {
+    const file = path.join(dir, name)
+    return fs.statSync(file).isDirectory()
+      ? files.concat(walk(file))
+      : files.concat(file)
+  }, [])
+
+const encoders = [
+  {
+    extension: '.gz',
+    encode: content => zlib.gzipSync(content, { level: 9 }),
+  },
+]
+if (zlib.brotliCompressSync) {
+  encoders.push({
+    extension: '.br',
+    encode: content =>
+      zlib.brotliCompressSync(content, {
+        params: { [zlib.constants.BROTLI_PARAM_QUALITY]: 11 },
+      }),
+  })
+}
+
+walk(PUBLIC_DIR)
+  .filter(file => EXTENSIONS.indexOf(path.extname(file)) > -1)
+  .forEach(file => {
+    const content = fs.readFileSync(file)
+    if (content.length < MIN_SIZE) {
+      return
+    }
+    encoders.forEach(encoder => {
+      const encoded = encoder.encode(content)
+      if (encoded.length < content.length) {
+        fs.writeFileSync(`${file}${encoder.extension}`, encoded)
+      }
+    })
+  })
@@ -0,0 +1,69 @@
+const FILE_EXTENSION = {
+  js: 'javascript',
+  md: 'markdown',
+  kt: 'kotlin',
+  kts: 'kotlin',
+  gradle: 'groovy',
+  gitignore: 'git',
+  java: 'java',
+  xml: 'xml',
+  properties: 'properties',
+  groovy: 'groovy',
+}
+
+const BUILD_FILES = ['pom.xml', 'build.gradle', 'build.gradle.kts']
+
+const getLanguage = file => {
+  if (!file.includes(`.`)) {
+    return null
+  }
+  const extension = file.split(`.`).pop()
+  if (FILE_EXTENSION.hasOwnProperty(extension)) {
+    return FILE_EXTENSION[extension]
+  }
+  return null
+}
+
+const createFolder = (path, filename, depth) => {
+  return {
+    type: 'folder',
+    filename: filename,
+    path: '/' + path,
+    hidden: depth === 1 ? true : null,
+    children: [],
+  }
+}
+
+// Build the tree of a project preview from the flat list of its files. The
+// content of the files is not available yet and is loaded when a file is
+// selected.
+export const createTree = files => {
+  const root = files[0].path.split('/')[0]
+  const tree = createFolder(`${root}/`, root, 0)
+  const folders = { [`${root}/`]: tree }
+  files.forEach(file => {
+    const pathArray = file.path.split('/')
+    let parent = tree
+    let path = `${root}/`
+    for (let i = 1; i < pathArray.length - 1; i++) {
+      path = `${path}${pathArray[i]}/`
+      if (!folders[path]) {
+        folders[path] = createFolder(path, pathArray[i], i)
+        parent.children.push(folders[path])
+      }
+      parent = folders[path]
+    }
+    const filename = pathArray[pathArray.length - 1]
+    parent.children.push({
+      type: 'file',
+      filename: filename,
+      path: '/' + file.path,
+      hidden: null,
+      language: getLanguage(filename),
+    })
+  })
+  const selected = tree.children.find(
+    item => item.type === 'file' && BUILD_FILES.indexOf(item.filename) > -1
+  )
+  return { tree: tree, selected: selected || null }
+}
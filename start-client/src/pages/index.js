@@ -1,5 +1,4 @@
 import FileSaver from 'file-saver'
-import JSZip from 'jszip'
 import React from 'react'
 import get from 'lodash.get'
 import queryString from 'query-string'
@@ -21,7 +20,7 @@ import {
 import { List, Placeholder, RadioGroup } from '../components/common/form'
 import { Meta } from '../components/common/meta'
 import { Typehead } from '../components/common/typehead'
-import { createTree, findRoot } from '../components/utils/Zip'
+import { createTree } from '../components/utils/Preview'
 import { isInRange } from '../components/utils/versions'
 
 const WEIGHT_DEFAULT = 50
@@ -170,7 +169,16 @@ class IndexPage extends React.Component {
     if (window.navigator.userAgent.toLowerCase().indexOf('mac') > -1) {
       this.setState({ symb: '⌘' })
     }
-    fetch(`${apiUrl}?t=${new Date().getTime()}`, {
+    const inlined = document.getElementById('initializr-metadata-content')
+    if (inlined) {
+      this.onComplete(JSON.parse(inlined.textContent))
+      return
+    }
+    const versioned = document.querySelector('meta[name="initializr-metadata"]')
+    const metadataUrl = versioned
+      ? versioned.getAttribute('content')
+      : `${apiUrl}?t=${new Date().getTime()}`
+    fetch(metadataUrl, {
       method: 'GET',
       headers: {
         Accept: 'application/vnd.initializr.v2.1+json',
@@ -260,27 +268,33 @@ class IndexPage extends React.Component {
     this.setState({ groups: val })
   }
 
+  getProjectUrl = url => {
+    const { project, language, boot, meta } = this.state
+    const params = querystring.stringify({
+      type: project,
+      language: language,
+      bootVersion: boot,
+      baseDir: meta.artifact,
+      groupId: meta.group,
+      artifactId: meta.artifact,
+      name: meta.name,
+      description: meta.description,
+      packageName: meta.packageName,
+      packaging: meta.packaging,
+      javaVersion: meta.java,
+    })
+    const paramsDependencies = this.getValidDependencies()
+      .map(dep => `&dependencies=${dep.id}`)
+      .join('')
+    return `${url}?${params}${paramsDependencies}`
+  }
+
   retrieveBlob = () => {
     return new Promise((resolve, reject) => {
-      const { project, language, boot, meta } = this.state
-      const url = `${this.props.data.site.edges[0].node.siteMetadata.apiZip}`
-      const params = querystring.stringify({
-        type: project,
-        language: language,
-        bootVersion: boot,
-        baseDir: meta.artifact,
-        groupId: meta.group,
-        artifactId: meta.artifact,
-        name: meta.name,
-        description: meta.description,
-        packageName: meta.packageName,
-        packaging: meta.packaging,
-        javaVersion: meta.java,
-      })
-      const paramsDependencies = this.getValidDependencies()
-        .map(dep => `&dependencies=${dep.id}`)
-        .join('')
-      fetch(`${url}?${params}${paramsDependencies}`, {
+      const url = this.getProjectUrl(
+        `${this.props.data.site.edges[0].node.siteMetadata.apiZip}`
+      )
+      fetch(url, {
         method: 'GET',
       }).then(
         function(response) {
@@ -297,6 +311,41 @@ class IndexPage extends React.Component {
     })
   }
 
+  retrievePreview = () => {
+    return new Promise((resolve, reject) => {
+      const url = this.getProjectUrl(
+        `${this.props.data.site.edges[0].node.siteMetadata.apiPreview}`
+      )
+      fetch(url, {
+        method: 'GET',
+      }).then(
+        function(response) {
+          if (response.status === 200) {
+            resolve(response.json())
+            return
+          }
+          reject()
+        },
+        function(error) {
+          reject()
+        }
+      )
+    })
+  }
+
+  retrieveContent = item => {
+    const { previewId } = this.state
+    const url = `${this.props.data.site.edges[0].node.siteMetadata.apiPreview}`
+    return fetch(`${url}/${previewId}${item.path}`, {
+      method: 'GET',
+    }).then(function(response) {
+      if (response.status === 200) {
+        return response.text()
+      }
+      throw new Error(`Unable to load ${item.path}`)
+    })
+  }
+
   onSubmit = async event => {
     event.preventDefault()
     const { meta } = this.state
@@ -317,36 +366,50 @@ class IndexPage extends React.Component {
       tree: null,
       file: null,
       projectName: null,
-      originalProject: null,
+      previewId: null,
     })
     const { meta } = this.state
-    const blob = await this.retrieveBlob().catch(err => {
+    const preview = await this.retrievePreview().catch(err => {
       toast.error('The server API is not available.')
       this.onExploreClose()
     })
-    const zip = new JSZip()
-    const { files } = await zip.loadAsync(blob)
-    const path = `${findRoot(zip)}/`
-    const { tree, selected } = await createTree(files, path, path, zip)
-
+    if (!preview) {
+      return
+    }
+    const { tree, selected } = createTree(preview.files)
+    this.setState({ previewId: preview.id })
+    if (selected) {
+      selected.content = await this.retrieveContent(selected).catch(err => '')
+    }
     if (get(this.state, 'exploreModal')) {
       this.setState({
         exploreModal: true,
         tree: tree,
         file: selected,
         projectName: `${meta.artifact}.zip`,
-        originalProject: blob,
       })
     }
   }
 
-  downloadFile = () => {
-    const { originalProject, projectName } = this.state
-    FileSaver.saveAs(originalProject, projectName)
+  downloadFile = async () => {
+    const { projectName } = this.state
+    const blob = await this.retrieveBlob().catch(err => {
+      toast.error('The server API is not available.')
+    })
+    if (!blob) {
+      return
+    }
+    FileSaver.saveAs(blob, projectName)
     toast.success('Your project has been downloaded with success.')
   }
 
-  onSelectedFile = item => {
+  onSelectedFile = async item => {
+    if (item.language && item.content === undefined) {
+      item.content = await this.retrieveContent(item).catch(err => {
+        toast.error('The server API is not available.')
+        return ''
+      })
+    }
     this.setState({ file: item })
   }
 
@@ -356,7 +419,7 @@ class IndexPage extends React.Component {
       tree: null,
       file: null,
       projectName: null,
-      originalProject: null,
+      previewId: null,
     })
   }
 
@@ -755,6 +818,7 @@ export const jsonObject = graphql`
             image
             apiUrl
             apiZip
+            apiPreview
           }
         }
       }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.Arrays;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.buildsystem.Dependency;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuild;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.ProjectRequestToDescriptionConverter;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.StartApplication;
+import io.spring.start.site.extension.StartProjectGenerationConfiguration;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Base class for benchmarks that require a running application. The application uses
+ * {@link OfflineConfiguration local fixtures} rather than remote services.
+ *
+ * @author Stephane Nicoll
+ */
+abstract class AbstractStartBenchmark {
+
+	private ConfigurableApplicationContext application;
+
+	protected void startApplication() {
+		this.application = new SpringApplicationBuilder(StartApplication.class, OfflineConfiguration.class)
+				.bannerMode(Banner.Mode.OFF).properties("server.port=0", "logging.level.root=warn").run();
+	}
+
+	protected void stopApplication() {
+		if (this.application != null) {
+			this.application.close();
+		}
+	}
+
+	protected <T> T getBean(Class<T> type) {
+		return this.application.getBean(type);
+	}
+
+	protected <T> T getBean(String name, Class<T> type) {
+		return this.application.getBean(name, type);
+	}
+
+	protected InitializrMetadata getMetadata() {
+		return getBean(InitializrMetadataProvider.class).get();
+	}
+
+	/**
+	 * Create a {@link WebProjectRequest} initialized with the defaults of the metadata.
+	 * @param type the project type
+	 * @param language the language, or {@code null} to use the default
+	 * @param bootVersion the Spring Boot version, or {@code null} to use the default
+	 * @param dependencies the ids of the requested dependencies
+	 * @return a project request
+	 */
+	protected WebProjectRequest createProjectRequest(String type, String language, String bootVersion,
+			String... dependencies) {
+		WebProjectRequest request = new WebProjectRequest();
+		request.initialize(getMetadata());
+		request.setType(type);
+		if (language != null) {
+			request.setLanguage(language);
+		}
+		if (bootVersion != null) {
+			request.setBootVersion(bootVersion);
+		}
+		request.getStyle().addAll(Arrays.asList(dependencies));
+		return request;
+	}
+
+	/**
+	 * Convert the specified {@link ProjectRequest} to a description, applying the
+	 * {@link ProjectDescriptionCustomizer customizers} of the application.
+	 * @param request the project request
+	 * @return the description of the project
+	 */
+	protected ResolvedProjectDescription createDescription(ProjectRequest request) {
+		ProjectDescription description = new ProjectRequestToDescriptionConverter().convert(request, getMetadata());
+		this.application.getBeanProvider(ProjectDescriptionCustomizer.class).orderedStream()
+				.forEach((customizer) -> customizer.customize(description));
+		return new ResolvedProjectDescription(description);
+	}
+
+	/**
+	 * Create a {@link Build} for the specified description, holding its requested
+	 * dependencies.
+	 * @param description the description of the project
+	 * @return a new build
+	 */
+	protected Build createBuild(ResolvedProjectDescription description) {
+		Build build = GradleBuildSystem.ID.equals(description.getBuildSystem().id()) ? new GradleBuild()
+				: new MavenBuild();
+		description.getRequestedDependencies().forEach((id, dependency) -> build.dependencies().add(id, Dependency
+				.withCoordinates(dependency.getGroupId(), dependency.getArtifactId()).scope(dependency.getScope())));
+		return build;
+	}
+
+	/**
+	 * Create a context holding the components that the site contributes to the generation
+	 * of the specified project.
+	 * @param description the description of the project
+	 * @param build the build of the project
+	 * @return a refreshed context
+	 */
+	protected ConfigurableApplicationContext createGenerationContext(ResolvedProjectDescription description,
+			Build build) {
+		InitializrMetadata metadata = getMetadata();
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setParent(this.application);
+		context.registerBean(ResolvedProjectDescription.class, () -> description);
+		context.registerBean(InitializrMetadata.class, () -> metadata);
+		context.registerBean(Build.class, () -> build);
+		context.register(StartProjectGenerationConfiguration.class);
+		context.refresh();
+		return context;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark each {@link BuildCustomizer} that the site contributes. Each invocation
+ * customizes a new {@link Build} holding the requested dependencies; the
+ * {@link #baseline() baseline} measures the creation of such a build on its own.
+ *
+ * @author Stephane Nicoll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BuildCustomizerBenchmark extends AbstractStartBenchmark {
+
+	private static final String[] DEPENDENCIES = { "web", "webflux", "security", "batch", "lombok", "kafka", "session",
+			"restdocs", "devtools", "cloud-function", "cloud-gcp", "cloud-stream", "cloud-contract-verifier" };
+
+	/**
+	 * The name of the {@link BuildCustomizer} bean to benchmark.
+	 */
+	@Param({ "reactorTestBuildCustomizer", "securityTestBuildCustomizer", "batchTestBuildCustomizer",
+			"lombokGradleBuildCustomizer", "buildRulesBuildCustomizer", "springRestDocsBuildCustomizer",
+			"devToolsMavenBuildCustomizer", "devToolsGradleBuildCustomizer", "springCloudGcpBomBuildCustomizer",
+			"springCloudContractMavenBuildCustomizer", "springCloudContractGradleBuildCustomizer",
+			"restDocsMavenBuildCustomizer", "restDocsGradleBuildCustomizer" })
+	public String customizer;
+
+	private ResolvedProjectDescription description;
+
+	private ConfigurableApplicationContext generationContext;
+
+	private BuildCustomizer<Build> buildCustomizer;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		startApplication();
+		String type = this.customizer.contains("Gradle") ? "gradle-project" : "maven-project";
+		this.description = createDescription(createProjectRequest(type, null, null, DEPENDENCIES));
+		this.generationContext = createGenerationContext(this.description, createBuild(this.description));
+		this.buildCustomizer = this.generationContext.getBean(this.customizer, BuildCustomizer.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.generationContext.close();
+		stopApplication();
+	}
+
+	@Benchmark
+	public Build baseline() {
+		return createBuild(this.description);
+	}
+
+	@Benchmark
+	public Build customize() {
+		Build build = createBuild(this.description);
+		this.buildCustomizer.customize(build);
+		return build;
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+/**
+ * A {@link DependencyManagementVersionResolver} that reads the managed dependencies of a
+ * bom from {@code managed-dependencies/<artifactId>.properties} on the classpath, so that
+ * benchmarks do not depend on the network. The version of the bom is ignored.
+ *
+ * @author Stephane Nicoll
+ */
+class FixtureDependencyManagementVersionResolver implements DependencyManagementVersionResolver {
+
+	private final Map<String, Map<String, String>> managedDependencies = new LinkedHashMap<>();
+
+	FixtureDependencyManagementVersionResolver() {
+		load("spring-boot-dependencies");
+		load("spring-cloud-dependencies");
+	}
+
+	private void load(String artifactId) {
+		Resource resource = new ClassPathResource("managed-dependencies/" + artifactId + ".properties");
+		try {
+			Properties properties = PropertiesLoaderUtils.loadProperties(resource);
+			Map<String, String> versions = new LinkedHashMap<>();
+			properties.stringPropertyNames().forEach((key) -> versions.put(key, properties.getProperty(key)));
+			this.managedDependencies.put(artifactId, Collections.unmodifiableMap(versions));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to load " + resource, ex);
+		}
+	}
+
+	@Override
+	public Map<String, String> resolve(String groupId, String artifactId, String version) {
+		return this.managedDependencies.getOrDefault(artifactId, Collections.emptyMap());
+	}
+
+}
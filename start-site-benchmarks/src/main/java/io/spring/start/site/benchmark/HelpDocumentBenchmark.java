@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.generator.spring.documentation.HelpDocument;
+import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark the rendering of {@code HELP.md} with the {@link MustacheTemplateRenderer} of
+ * the application, once customized by each {@link HelpDocumentCustomizer} of the site.
+ *
+ * @author Stephane Nicoll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HelpDocumentBenchmark extends AbstractStartBenchmark {
+
+	private static final String[] DEPENDENCIES = { "web", "cloud-function", "cloud-aws", "azure-support",
+			"cloud-hystrix", "cloud-zuul" };
+
+	/**
+	 * The name of the {@link HelpDocumentCustomizer} bean to benchmark.
+	 */
+	@Param({ "mavenBuildSystemHelpDocumentCustomizer", "gradleBuildSystemHelpDocumentCustomizer",
+			"maintenanceModuleHelpDocumentCustomizer", "springCloudFunctionHelpDocumentCustomizer" })
+	public String customizer;
+
+	private MustacheTemplateRenderer templateRenderer;
+
+	private ConfigurableApplicationContext generationContext;
+
+	private HelpDocumentCustomizer helpDocumentCustomizer;
+
+	@Setup
+	public void setup() {
+		startApplication();
+		this.templateRenderer = getBean(MustacheTemplateRenderer.class);
+		String type = this.customizer.startsWith("gradle") ? "gradle-project" : "maven-project";
+		ResolvedProjectDescription description = createDescription(
+				createProjectRequest(type, null, "2.2.0.BUILD-SNAPSHOT", DEPENDENCIES));
+		this.generationContext = createGenerationContext(description, createBuild(description));
+		this.helpDocumentCustomizer = this.generationContext.getBean(this.customizer, HelpDocumentCustomizer.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.generationContext.close();
+		stopApplication();
+	}
+
+	@Benchmark
+	public String render() throws IOException {
+		HelpDocument helpDocument = new HelpDocument(this.templateRenderer);
+		this.helpDocumentCustomizer.customize(helpDocument);
+		StringWriter out = new StringWriter();
+		helpDocument.write(new PrintWriter(out));
+		return out.toString();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.mapper.InitializrMetadataJsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV21JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV2JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the serialization of the metadata of the service to JSON.
+ *
+ * @author Stephane Nicoll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetadataJsonBenchmark extends AbstractStartBenchmark {
+
+	/**
+	 * The version of the metadata format.
+	 */
+	@Param({ "v2", "v2.1" })
+	public String version;
+
+	private InitializrMetadata metadata;
+
+	private InitializrMetadataJsonMapper jsonMapper;
+
+	@Setup
+	public void setup() {
+		startApplication();
+		this.metadata = getMetadata();
+		this.jsonMapper = "v2".equals(this.version) ? new InitializrMetadataV2JsonMapper()
+				: new InitializrMetadataV21JsonMapper();
+	}
+
+	@TearDown
+	public void tearDown() {
+		stopApplication();
+	}
+
+	@Benchmark
+	public String write() {
+		return this.jsonMapper.write(this.metadata, "https://start.spring.io");
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.initializr.web.support.InitializrMetadataUpdateStrategy;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Configuration that replaces the components of the application that require network
+ * access by local fixtures.
+ *
+ * @author Stephane Nicoll
+ */
+@Configuration
+class OfflineConfiguration {
+
+	@Bean
+	@Primary
+	DependencyManagementVersionResolver fixtureDependencyManagementVersionResolver() {
+		return new FixtureDependencyManagementVersionResolver();
+	}
+
+	@Bean
+	@Primary
+	InitializrMetadataUpdateStrategy fixtureMetadataUpdateStrategy() {
+		return (current) -> current;
+	}
+
+}
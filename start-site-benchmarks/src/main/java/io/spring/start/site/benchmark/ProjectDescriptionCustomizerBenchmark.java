@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.ProjectRequestToDescriptionConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark each {@link ProjectDescriptionCustomizer} of the site. Each invocation
+ * customizes a description freshly converted from the same request; the
+ * {@link #baseline() baseline} measures that conversion on its own.
+ *
+ * @author Stephane Nicoll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProjectDescriptionCustomizerBenchmark extends AbstractStartBenchmark {
+
+	/**
+	 * The name of the {@link ProjectDescriptionCustomizer} bean to benchmark.
+	 */
+	@Param({ "javaVersionProjectDescriptionCustomizer", "springBoot2ProjectDescriptionCustomizer",
+			"gradleDslProjectDescriptionCustomizer" })
+	public String customizer;
+
+	/**
+	 * The type of the project.
+	 */
+	@Param({ "maven-project", "gradle-project" })
+	public String type;
+
+	private final ProjectRequestToDescriptionConverter converter = new ProjectRequestToDescriptionConverter();
+
+	private InitializrMetadata metadata;
+
+	private ProjectRequest request;
+
+	private ProjectDescriptionCustomizer descriptionCustomizer;
+
+	@Setup
+	public void setup() {
+		startApplication();
+		this.metadata = getMetadata();
+		this.request = createProjectRequest(this.type, "kotlin", null, "web", "data-jpa");
+		this.request.setJavaVersion("11");
+		this.descriptionCustomizer = getBean(this.customizer, ProjectDescriptionCustomizer.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		stopApplication();
+	}
+
+	@Benchmark
+	public ProjectDescription baseline() {
+		return this.converter.convert(this.request, this.metadata);
+	}
+
+	@Benchmark
+	public ProjectDescription customize() {
+		ProjectDescription description = this.converter.convert(this.request, this.metadata);
+		this.descriptionCustomizer.customize(description);
+		return description;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the end-to-end generation of representative projects.
+ *
+ * @author Stephane Nicoll
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjectGenerationBenchmark extends AbstractStartBenchmark {
+
+	/**
+	 * The build system of the project.
+	 */
+	@Param({ "maven", "gradle" })
+	public String buildSystem;
+
+	/**
+	 * The language of the project.
+	 */
+	@Param({ "java", "kotlin" })
+	public String language;
+
+	/**
+	 * The comma-separated ids of the requested dependencies.
+	 */
+	@Param({ "web", "web,data-jpa,security,devtools", "webflux,cloud-stream,kafka,cloud-contract-verifier",
+			"cloud-function,cloud-gcp,session,restdocs,lombok" })
+	public String dependencies;
+
+	private ProjectGenerationInvoker invoker;
+
+	private ProjectRequest projectRequest;
+
+	private ProjectRequest buildRequest;
+
+	@Setup
+	public void setup() {
+		startApplication();
+		this.invoker = getBean(ProjectGenerationInvoker.class);
+		String[] dependencies = this.dependencies.split(",");
+		this.projectRequest = createProjectRequest(this.buildSystem + "-project", this.language, null, dependencies);
+		this.buildRequest = createProjectRequest(this.buildSystem + "-build", this.language, null, dependencies);
+	}
+
+	@TearDown
+	public void tearDown() {
+		stopApplication();
+	}
+
+	@Benchmark
+	public Path generateProject() {
+		ProjectGenerationResult result = this.invoker.invokeProjectStructureGeneration(this.projectRequest);
+		this.invoker.cleanTempFiles(result.getRootDirectory());
+		return result.getRootDirectory();
+	}
+
+	@Benchmark
+	public byte[] generateBuild() {
+		return this.invoker.invokeBuildGeneration(this.buildRequest);
+	}
+
+}
@@ -19,12 +19,13 @@ package io.spring.start.site;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +40,7 @@ import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.SyncContextFactory;
 import org.eclipse.aether.internal.impl.DefaultRepositorySystem;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.RemoteRepository;
@@ -64,15 +66,20 @@ import org.eclipse.aether.util.repository.SimpleArtifactDescriptorPolicy;
 
 import org.springframework.util.FileSystemUtils;
 
+/**
+ * Resolve the dependencies of a starter using a local repository that is shared by all
+ * the threads of the JVM. Set {@value #LOCAL_REPOSITORY_PROPERTY} to use a local
+ * repository that is kept after the verification and can be shared by several JVMs, and
+ * {@value #OFFLINE_PROPERTY} to {@code true} to only resolve artifacts from a
+ * pre-populated local repository.
+ */
 final class DependencyResolver {
 
-	private static final Collection<DependencyResolver> instances = new ArrayList<>();
+	static final String LOCAL_REPOSITORY_PROPERTY = "verification.local-repository";
 
-	private static final ThreadLocal<DependencyResolver> instanceForThread = ThreadLocal.withInitial(() -> {
-		DependencyResolver instance = new DependencyResolver();
-		instances.add(instance);
-		return instance;
-	});
+	static final String OFFLINE_PROPERTY = "verification.offline";
+
+	private static DependencyResolver instance;
 
 	private static final RepositoryPolicy repositoryPolicy = new RepositoryPolicy(true,
 			RepositoryPolicy.UPDATE_POLICY_NEVER, RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
@@ -88,44 +95,83 @@ final class DependencyResolver {
 
 	private static final Map<String, List<Dependency>> managedDependencies = new ConcurrentHashMap<>();
 
+	private static final Map<String, String> managedDependenciesFingerprints = new ConcurrentHashMap<>();
+
+	private final Map<String, List<String>> graphs = new ConcurrentHashMap<>();
+
+	private final ResolutionResultStore graphStore;
+
 	private final Path localRepositoryLocation;
 
+	private final boolean temporary;
+
 	private final RepositorySystemSession repositorySystemSession;
 
 	private final RepositorySystem repositorySystem;
 
-	DependencyResolver() {
-		try {
-			ServiceLocator serviceLocator = createServiceLocator();
-			DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
-			session.setArtifactDescriptorPolicy(new SimpleArtifactDescriptorPolicy(false, false));
-			this.localRepositoryLocation = Files.createTempDirectory("metadata-validation-m2");
-			LocalRepository localRepository = new LocalRepository(this.localRepositoryLocation.toFile());
-			this.repositorySystem = serviceLocator.getService(RepositorySystem.class);
-			session.setLocalRepositoryManager(
-					this.repositorySystem.newLocalRepositoryManager(session, localRepository));
-			session.setReadOnly();
-			this.repositorySystemSession = session;
-		}
-		catch (Exception ex) {
-			throw new RuntimeException(ex);
+	private DependencyResolver(Path localRepositoryLocation, boolean temporary, boolean offline) {
+		this.localRepositoryLocation = localRepositoryLocation;
+		this.temporary = temporary;
+		this.graphStore = ResolutionResultStore.at(localRepositoryLocation.resolve(".graphs"));
+		ServiceLocator serviceLocator = createServiceLocator(localRepositoryLocation);
+		DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+		session.setArtifactDescriptorPolicy(new SimpleArtifactDescriptorPolicy(false, false));
+		LocalRepository localRepository = (offline) ? new LocalRepository(localRepositoryLocation.toFile(), "simple")
+				: new LocalRepository(localRepositoryLocation.toFile());
+		this.repositorySystem = serviceLocator.getService(RepositorySystem.class);
+		session.setLocalRepositoryManager(this.repositorySystem.newLocalRepositoryManager(session, localRepository));
+		session.setOffline(offline);
+		session.setReadOnly();
+		this.repositorySystemSession = session;
+	}
+
+	private static synchronized DependencyResolver get() {
+		if (instance == null) {
+			try {
+				String location = System.getProperty(LOCAL_REPOSITORY_PROPERTY);
+				boolean offline = Boolean.getBoolean(OFFLINE_PROPERTY);
+				instance = (location != null)
+						? new DependencyResolver(Files.createDirectories(Paths.get(location)), false, offline)
+						: new DependencyResolver(Files.createTempDirectory("metadata-validation-m2"), true, offline);
+			}
+			catch (IOException ex) {
+				throw new RuntimeException(ex);
+			}
 		}
+		return instance;
 	}
 
 	static List<String> resolveDependencies(String groupId, String artifactId, String version, Version bootVersion,
 			List<BillOfMaterials> boms) {
-		DependencyResolver instance = instanceForThread.get();
+		DependencyResolver instance = get();
 		List<Dependency> managedDependencies = instance.getManagedDependencies(boms, bootVersion);
-		Dependency aetherDependency = new Dependency(new DefaultArtifact(groupId, artifactId, "pom",
-				instance.getVersion(groupId, artifactId, version, managedDependencies)), "compile");
+		String resolvedVersion = instance.getVersion(groupId, artifactId, version, managedDependencies);
+		List<RemoteRepository> repositories = instance.getRepositoriesForVersion(bootVersion);
+		String key = groupId + ":" + artifactId + ":" + resolvedVersion + "\n"
+				+ getManagedDependenciesFingerprint(boms, managedDependencies) + "\n"
+				+ repositories.stream().map((repository) -> repository.getId() + "=" + repository.getUrl())
+						.collect(Collectors.joining(","));
+		List<String> graph = instance.graphs.get(key);
+		if (graph == null) {
+			Supplier<List<String>> collector = () -> instance.collectDependencies(groupId, artifactId, resolvedVersion,
+					managedDependencies, repositories);
+			graph = (isSnapshot(resolvedVersion, boms)) ? collector.get() : instance.graphStore.resolve(key, collector);
+			instance.graphs.putIfAbsent(key, graph);
+		}
+		return graph;
+	}
+
+	private List<String> collectDependencies(String groupId, String artifactId, String version,
+			List<Dependency> managedDependencies, List<RemoteRepository> repositories) {
+		Dependency aetherDependency = new Dependency(new DefaultArtifact(groupId, artifactId, "pom", version),
+				"compile");
 		CollectRequest collectRequest = new CollectRequest((org.eclipse.aether.graph.Dependency) null,
-				Collections.singletonList(aetherDependency), instance.getRepositoriesForVersion(bootVersion));
+				Collections.singletonList(aetherDependency), repositories);
 		collectRequest.setManagedDependencies(managedDependencies);
 		DependencyRequest dependencyRequest = new DependencyRequest(collectRequest,
 				DependencyFilterUtils.classpathFilter(JavaScopes.COMPILE, JavaScopes.RUNTIME));
 		try {
-			return instance.resolveDependencies(dependencyRequest).getArtifactResults().stream()
-					.map(ArtifactResult::getArtifact)
+			return resolveDependencies(dependencyRequest).getArtifactResults().stream().map(ArtifactResult::getArtifact)
 					.map((artifact) -> artifact.getGroupId() + ":" + artifact.getArtifactId())
 					.collect(Collectors.toList());
 		}
@@ -134,8 +180,38 @@ final class DependencyResolver {
 		}
 	}
 
-	static void cleanUp() {
-		instances.forEach(DependencyResolver::deleteLocalRepository);
+	private static boolean isSnapshot(String version, List<BillOfMaterials> boms) {
+		return (version != null && version.contains("SNAPSHOT"))
+				|| boms.stream().anyMatch((bom) -> bom.getVersion() != null && bom.getVersion().contains("SNAPSHOT"));
+	}
+
+	/*
+	 * Return a fingerprint of the content of the managed dependencies of the specified
+	 * boms so that boms that manage the same versions lead to the same graph.
+	 */
+	private static String getManagedDependenciesFingerprint(List<BillOfMaterials> boms,
+			List<Dependency> managedDependencies) {
+		String bomsKey = boms.stream()
+				.map((bom) -> bom.getGroupId() + ":" + bom.getArtifactId() + ":" + bom.getVersion())
+				.collect(Collectors.joining(","));
+		return managedDependenciesFingerprints.computeIfAbsent(bomsKey, (key) -> {
+			StringBuilder content = new StringBuilder();
+			for (Dependency managedDependency : managedDependencies) {
+				content.append(managedDependency.getArtifact()).append(' ').append(managedDependency.getScope())
+						.append(' ').append(managedDependency.getOptional());
+				managedDependency.getExclusions().forEach((exclusion) -> content.append(' ')
+						.append(exclusion.getGroupId()).append(':').append(exclusion.getArtifactId()));
+				content.append('\n');
+			}
+			return ResolutionResultStore.fingerprint(content.toString());
+		});
+	}
+
+	static synchronized void cleanUp() {
+		if (instance != null && instance.temporary) {
+			instance.deleteLocalRepository();
+		}
+		instance = null;
 	}
 
 	void deleteLocalRepository() {
@@ -209,8 +285,9 @@ final class DependencyResolver {
 		return null;
 	}
 
-	private static ServiceLocator createServiceLocator() {
+	private static ServiceLocator createServiceLocator(Path localRepositoryLocation) {
 		DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+		locator.setServices(SyncContextFactory.class, new FileLockingSyncContextFactory(localRepositoryLocation));
 		locator.addService(RepositorySystem.class, DefaultRepositorySystem.class);
 		locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
 		locator.addService(TransporterFactory.class, DependencyResolver.JarSkippingHttpTransporterFactory.class);
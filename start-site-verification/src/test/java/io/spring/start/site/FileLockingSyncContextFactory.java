@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SyncContext;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.SyncContextFactory;
+import org.eclipse.aether.metadata.Metadata;
+
+/**
+ * A {@link SyncContextFactory} for a local repository that is shared by several threads
+ * and several JVMs. Artifacts and metadata are locked per {@code groupId:artifactId},
+ * using a lock in the JVM and a file lock in the {@code .locks} directory of the local
+ * repository.
+ *
+ * @author Stephane Nicoll
+ */
+final class FileLockingSyncContextFactory implements SyncContextFactory {
+
+	private final Path lockDirectory;
+
+	private final Map<String, KeyLock> locks = new ConcurrentHashMap<>();
+
+	FileLockingSyncContextFactory(Path localRepository) {
+		this.lockDirectory = localRepository.resolve(".locks");
+	}
+
+	@Override
+	public SyncContext newInstance(RepositorySystemSession session, boolean shared) {
+		return new FileLockingSyncContext();
+	}
+
+	private static String lockName(String groupId, String artifactId) {
+		String key = (artifactId == null || artifactId.isEmpty()) ? groupId : groupId + "~" + artifactId;
+		return key.replaceAll("[^A-Za-z0-9.~_-]", "_") + ".lock";
+	}
+
+	private final class FileLockingSyncContext implements SyncContext {
+
+		private final Deque<KeyLock> acquired = new ArrayDeque<>();
+
+		@Override
+		public void acquire(Collection<? extends Artifact> artifacts, Collection<? extends Metadata> metadatas) {
+			SortedSet<String> names = new TreeSet<>();
+			if (artifacts != null) {
+				artifacts.forEach((artifact) -> names.add(lockName(artifact.getGroupId(), artifact.getArtifactId())));
+			}
+			if (metadatas != null) {
+				metadatas.forEach((metadata) -> names.add(lockName(metadata.getGroupId(), metadata.getArtifactId())));
+			}
+			for (String name : names) {
+				KeyLock lock = FileLockingSyncContextFactory.this.locks.computeIfAbsent(name,
+						(key) -> new KeyLock(FileLockingSyncContextFactory.this.lockDirectory.resolve(key)));
+				lock.lock();
+				this.acquired.push(lock);
+			}
+		}
+
+		@Override
+		public void close() {
+			while (!this.acquired.isEmpty()) {
+				this.acquired.pop().unlock();
+			}
+		}
+
+	}
+
+	/**
+	 * A lock that is reentrant for the thread holding it. The file lock is only held by
+	 * the outermost acquisition.
+	 */
+	private static final class KeyLock {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Path file;
+
+		private FileChannel channel;
+
+		private FileLock fileLock;
+
+		KeyLock(Path file) {
+			this.file = file;
+		}
+
+		void lock() {
+			this.lock.lock();
+			if (this.lock.getHoldCount() == 1) {
+				try {
+					Files.createDirectories(this.file.getParent());
+					this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					this.fileLock = this.channel.lock();
+				}
+				catch (IOException ex) {
+					release();
+					this.lock.unlock();
+					throw new IllegalStateException("Failed to lock " + this.file, ex);
+				}
+			}
+		}
+
+		void unlock() {
+			try {
+				if (this.lock.getHoldCount() == 1) {
+					release();
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void release() {
+			try {
+				if (this.fileLock != null) {
+					this.fileLock.release();
+				}
+				if (this.channel != null) {
+					this.channel.close();
+				}
+			}
+			catch (IOException ex) {
+				// Continue
+			}
+			finally {
+				this.fileLock = null;
+				this.channel = null;
+			}
+		}
+
+	}
+
+}
@@ -19,6 +19,7 @@ package io.spring.start.site;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -33,6 +34,7 @@ import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.metadata.DependencyGroup;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.metadata.Repository;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
@@ -49,6 +51,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Tests to verify the validity of the metadata.
+ * <p>
+ * The verification can be split across several JVMs by setting
+ * {@value #SHARD_COUNT_PROPERTY} to the number of shards and
+ * {@value #SHARD_INDEX_PROPERTY} to the zero-based index of the shard that a JVM
+ * verifies. All the Spring Boot versions of a given dependency are verified by the same
+ * shard.
  *
  * @author Andy Wilkinson
  */
@@ -57,8 +65,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 @Execution(ExecutionMode.CONCURRENT)
 class MetadataVerificationTests {
 
+	static final String SHARD_COUNT_PROPERTY = "verification.shard.count";
+
+	static final String SHARD_INDEX_PROPERTY = "verification.shard.index";
+
 	private final InitializrMetadata metadata;
 
+	private final ResolutionResultStore resultStore = ResolutionResultStore.create();
+
 	MetadataVerificationTests(@Autowired InitializrMetadataProvider metadataProvider) throws IOException {
 		this.metadata = metadataProvider.get();
 	}
@@ -72,21 +86,28 @@ class MetadataVerificationTests {
 	@MethodSource("parameters")
 	void dependencyStarterConfigurationIsCorrect(Version bootVersion, List<BillOfMaterials> boms, Dependency dependency,
 			String description) {
-		List<String> dependencies = DependencyResolver.resolveDependencies(dependency.getGroupId(),
-				dependency.getArtifactId(), dependency.getVersion(), bootVersion, boms);
-		if (dependency.isStarter()) {
-			assertThat(dependencies).anyMatch("org.springframework.boot:spring-boot-starter"::equals);
-		}
-		else {
-			assertThat(dependencies).noneMatch("org.springframework.boot:spring-boot-starter"::equals);
-		}
+		this.resultStore.verify(bootVersion, boms, getRepositories(boms, dependency), dependency, () -> {
+			List<String> dependencies = DependencyResolver.resolveDependencies(dependency.getGroupId(),
+					dependency.getArtifactId(), dependency.getVersion(), bootVersion, boms);
+			if (dependency.isStarter()) {
+				assertThat(dependencies).anyMatch("org.springframework.boot:spring-boot-starter"::equals);
+			}
+			else {
+				assertThat(dependencies).noneMatch("org.springframework.boot:spring-boot-starter"::equals);
+			}
+		});
 	}
 
 	Stream<Arguments> parameters() {
+		int shardCount = Integer.getInteger(SHARD_COUNT_PROPERTY, 1);
+		int shardIndex = Integer.getInteger(SHARD_INDEX_PROPERTY, 0);
 		List<Arguments> parameters = new ArrayList<>();
 		for (Version bootVersion : bootVersions()) {
 			for (DependencyGroup group : groups()) {
 				for (Dependency dependency : dependenciesForBootVersion(group, bootVersion)) {
+					if (Math.floorMod(dependency.getId().hashCode(), shardCount) != shardIndex) {
+						continue;
+					}
 					dependency = dependency.resolve(bootVersion);
 					List<BillOfMaterials> boms = getBoms(bootVersion, group, dependency);
 					parameters.add(Arguments.of(bootVersion, boms, dependency, bootVersion + " " + dependency.getId()));
@@ -105,6 +126,22 @@ class MetadataVerificationTests {
 		return boms;
 	}
 
+	private Map<String, Repository> getRepositories(List<BillOfMaterials> boms, Dependency dependency) {
+		Map<String, Repository> repositoriesById = this.metadata.getConfiguration().getEnv().getRepositories();
+		Map<String, Repository> repositories = new LinkedHashMap<>();
+		Consumer<String> addRepository = (id) -> {
+			Repository repository = repositoriesById.get(id);
+			if (repository != null) {
+				repositories.put(id, repository);
+			}
+		};
+		if (dependency.getRepository() != null) {
+			addRepository.accept(dependency.getRepository());
+		}
+		boms.forEach((bom) -> bom.getRepositories().forEach(addRepository));
+		return repositories;
+	}
+
 	private void bomsForId(String id, Version bootVersion, Consumer<BillOfMaterials> consumer) {
 		if (id == null) {
 			return;
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.Repository;
+
+/**
+ * Store of verification results. Each result is keyed by a fingerprint of its inputs.
+ * <p>
+ * The store of the results of the verification is only enabled if
+ * {@value #LOCATION_PROPERTY} is set. It keeps the verdict of each starter: the
+ * verification of a starter that has passed is skipped as long as the Spring Boot
+ * version, the coordinates of the starter, whether it is flagged as a starter, the boms
+ * that manage it and the repositories that the metadata declares for it and its boms have
+ * not changed. Failed verifications are never stored.
+ * <p>
+ * {@link DependencyResolver} also uses a store, in the {@code .graphs} directory of its
+ * local repository, to keep the dependency graph of each resolution. That store is keyed
+ * by the inputs of the resolution itself: the version of the starter that is effectively
+ * used, the content of the managed dependencies and the remote repositories. The verdict
+ * store is consulted first so that a starter whose verdict is known is neither resolved
+ * nor looked up in the graph store. If the inputs of a starter have changed, for instance
+ * because a bom has a new version that manages the same dependencies, its graph may still
+ * be found in the graph store so that only the cheap assertion is run again. Either store
+ * can be deleted independently.
+ * <p>
+ * Results are never reused for a snapshot, as its content may change without its inputs
+ * changing.
+ *
+ * @author Stephane Nicoll
+ */
+final class ResolutionResultStore {
+
+	static final String LOCATION_PROPERTY = "verification.result-store";
+
+	private static final String FORMAT = "v2";
+
+	private static final String PASSED = "passed";
+
+	private final Path location;
+
+	private ResolutionResultStore(Path location) {
+		this.location = location;
+	}
+
+	/**
+	 * Create a store according to the {@value #LOCATION_PROPERTY} system property.
+	 * @return a store, disabled if no location has been specified
+	 */
+	static ResolutionResultStore create() {
+		String location = System.getProperty(LOCATION_PROPERTY);
+		return new ResolutionResultStore((location != null) ? Paths.get(location) : null);
+	}
+
+	/**
+	 * Create a store at the specified location.
+	 * @param location the directory of the store
+	 * @return a store
+	 */
+	static ResolutionResultStore at(Path location) {
+		return new ResolutionResultStore(location);
+	}
+
+	/**
+	 * Run the verification of the specified starter, unless it has already passed with
+	 * the same inputs. The verdict is stored if the verification passes.
+	 * @param bootVersion the Spring Boot version
+	 * @param boms the boms that manage the dependencies of the starter
+	 * @param repositories the repositories of the starter and its boms, by id
+	 * @param dependency the starter
+	 * @param verification the verification to run, throwing an {@link AssertionError} if
+	 * it fails
+	 */
+	void verify(Version bootVersion, List<BillOfMaterials> boms, Map<String, Repository> repositories,
+			Dependency dependency, Runnable verification) {
+		String inputs = inputs(bootVersion, boms, repositories, dependency);
+		if (this.location == null || inputs.contains("SNAPSHOT")) {
+			verification.run();
+			return;
+		}
+		Path result = this.location.resolve(fingerprint(inputs));
+		if (hasPassed(result)) {
+			return;
+		}
+		verification.run();
+		store(result, Collections.singletonList(PASSED));
+	}
+
+	private boolean hasPassed(Path result) {
+		if (!Files.isRegularFile(result)) {
+			return false;
+		}
+		try {
+			return Files.readAllLines(result, StandardCharsets.UTF_8).equals(Collections.singletonList(PASSED));
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Return the dependencies resolved for the specified inputs, using the stored result
+	 * if these inputs have already been resolved.
+	 * @param inputs a description of all the inputs of the resolution
+	 * @param resolver the resolver to use if no result is available
+	 * @return the resolved dependencies
+	 */
+	List<String> resolve(String inputs, Supplier<List<String>> resolver) {
+		if (this.location == null || inputs.contains("SNAPSHOT")) {
+			return resolver.get();
+		}
+		Path result = this.location.resolve(fingerprint(inputs));
+		if (Files.isRegularFile(result)) {
+			try {
+				return Files.readAllLines(result, StandardCharsets.UTF_8);
+			}
+			catch (IOException ex) {
+				// Resolve again
+			}
+		}
+		List<String> dependencies = resolver.get();
+		store(result, dependencies);
+		return dependencies;
+	}
+
+	private static String inputs(Version bootVersion, List<BillOfMaterials> boms, Map<String, Repository> repositories,
+			Dependency dependency) {
+		StringBuilder inputs = new StringBuilder(FORMAT).append('\n').append(bootVersion).append('\n')
+				.append(dependency.getGroupId()).append(':').append(dependency.getArtifactId()).append(':')
+				.append(dependency.getVersion()).append(" starter=").append(dependency.isStarter()).append('\n');
+		for (BillOfMaterials bom : boms) {
+			inputs.append(bom.getGroupId()).append(':').append(bom.getArtifactId()).append(':').append(bom.getVersion())
+					.append('\n');
+		}
+		repositories.forEach((id, repository) -> inputs.append(id).append('=').append(repository.getUrl())
+				.append(" snapshots=").append(repository.isSnapshotsEnabled()).append('\n'));
+		return inputs.toString();
+	}
+
+	static String fingerprint(String inputs) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(inputs.getBytes(StandardCharsets.UTF_8));
+			StringBuilder fingerprint = new StringBuilder();
+			for (byte b : digest) {
+				fingerprint.append(String.format("%02x", b));
+			}
+			return fingerprint.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void store(Path result, List<String> dependencies) {
+		try {
+			Files.createDirectories(this.location);
+			Path tmp = Files.createTempFile(this.location, "result-", ".tmp");
+			Files.write(tmp, dependencies, StandardCharsets.UTF_8);
+			Files.move(tmp, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			// The starter will be resolved again next time
+		}
+	}
+
+}
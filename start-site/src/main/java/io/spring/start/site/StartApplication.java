@@ -17,24 +17,67 @@
 package io.spring.start.site;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.project.ProjectDirectoryFactory;
+import io.spring.initializr.metadata.InitializrMetadataBuilder;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.metadata.InitializrProperties;
 import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
 import io.spring.initializr.web.support.InitializrMetadataUpdateStrategy;
+import io.spring.start.site.extension.BuildRules;
 import io.spring.start.site.extension.ProjectDescriptionCustomizerConfiguration;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+import io.spring.start.site.support.CacheableDependencyManagementVersionResolver;
+import io.spring.start.site.support.CompiledTemplates;
+import io.spring.start.site.support.DependencyIndex;
+import io.spring.start.site.support.HelpSectionCache;
+import io.spring.start.site.support.PersistentDependencyManagementVersionResolver;
+import io.spring.start.site.support.StartInitializrMetadataProvider;
 import io.spring.start.site.support.StartInitializrMetadataUpdateStrategy;
+import io.spring.start.site.support.TimedGenerationComponentsBeanPostProcessor;
+import io.spring.start.site.support.VersionResolutionWarmUp;
 import io.spring.start.site.web.HomeController;
+import io.spring.start.site.web.ProjectArchiveFilter;
+import io.spring.start.site.web.ProjectArchiveGenerator;
+import io.spring.start.site.web.ProjectMetadataFilter;
+import io.spring.start.site.web.ProjectPreviewFilter;
+import io.spring.start.site.web.StaticResourcesConfigurer;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.web.server.ErrorPage;
 import org.springframework.boot.web.server.ErrorPageRegistrar;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.EnableAsync;
 
@@ -48,6 +91,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @Import(ProjectDescriptionCustomizerConfiguration.class)
 @EnableCaching
 @EnableAsync
+@EnableConfigurationProperties(StartProperties.class)
 public class StartApplication {
 
 	public static void main(String[] args) {
@@ -61,8 +105,51 @@ public class StartApplication {
 	}
 
 	@Bean
-	public HomeController homeController() {
-		return new HomeController();
+	public StartInitializrMetadataProvider initializrMetadataProvider(InitializrProperties initializrProperties,
+			InitializrMetadataUpdateStrategy updateStrategy,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+			ApplicationEventPublisher eventPublisher, StartProperties properties) {
+		return new StartInitializrMetadataProvider(
+				() -> InitializrMetadataBuilder.fromInitializrProperties(initializrProperties).build(), updateStrategy,
+				executor, eventPublisher, properties.getMetadata().getRefreshInterval());
+	}
+
+	@Bean
+	public static TimedGenerationComponentsBeanPostProcessor timedProjectDescriptionCustomizersBeanPostProcessor(
+			ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<StartProperties> properties,
+			ObjectProvider<InitializrMetadataProvider> metadataProvider) {
+		return new TimedGenerationComponentsBeanPostProcessor(meterRegistry::getIfAvailable,
+				() -> properties.getObject().getGeneration().getTimingSampleRate(), (argument) -> {
+					ProjectDescription description = (ProjectDescription) argument;
+					return TimedGenerationComponentsBeanPostProcessor.projectTags(description.getBuildSystem(),
+							description.getPlatformVersion(), metadataProvider.getObject().get());
+				});
+	}
+
+	@Bean
+	public BuildRules buildRules(StartProperties properties, InitializrProperties initializrProperties) {
+		return BuildRules.compile(properties.getBuildRules(),
+				InitializrMetadataBuilder.fromInitializrProperties(initializrProperties).build());
+	}
+
+	@Bean
+	public BillOfMaterialsIndex billOfMaterialsIndex(InitializrMetadataProvider metadataProvider) {
+		return new BillOfMaterialsIndex(metadataProvider);
+	}
+
+	@Bean
+	public DependencyIndex dependencyIndex(InitializrMetadataProvider metadataProvider) {
+		return new DependencyIndex(metadataProvider);
+	}
+
+	@Bean
+	public CompiledTemplates compiledTemplates() {
+		return CompiledTemplates.compile("classpath:/templates");
+	}
+
+	@Bean
+	public HomeController homeController(ProjectMetadataFilter projectMetadataFilter) {
+		return new HomeController(new ClassPathResource("static/index.html"), projectMetadataFilter);
 	}
 
 	@Bean
@@ -71,9 +158,117 @@ public class StartApplication {
 	}
 
 	@Bean
-	public DependencyManagementVersionResolver dependencyManagementVersionResolver() throws IOException {
-		return DependencyManagementVersionResolver
-				.withCacheLocation(Files.createTempDirectory("version-resolver-cache-"));
+	public DependencyManagementVersionResolver dependencyManagementVersionResolver(StartProperties properties)
+			throws IOException {
+		String cacheLocation = properties.getVersionResolver().getCacheLocation();
+		Path location = (cacheLocation != null) ? Files.createDirectories(Paths.get(cacheLocation))
+				: Files.createTempDirectory("version-resolver-cache-");
+		return new CacheableDependencyManagementVersionResolver(new PersistentDependencyManagementVersionResolver(
+				DependencyManagementVersionResolver.withCacheLocation(location.resolve("repository")),
+				location.resolve("index")));
+	}
+
+	@Bean
+	public VersionResolutionWarmUp versionResolutionWarmUp(InitializrMetadataProvider metadataProvider,
+			BillOfMaterialsIndex billOfMaterialsIndex, DependencyManagementVersionResolver versionResolver,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+		return new VersionResolutionWarmUp(metadataProvider, billOfMaterialsIndex, versionResolver, executor);
+	}
+
+	@Bean
+	public ProjectDirectoryFactory projectDirectoryFactory(StartProperties properties) {
+		String directory = properties.getGeneration().getDirectory();
+		if (directory == null) {
+			return (description) -> Files.createTempDirectory("project-");
+		}
+		Path location = Paths.get(directory);
+		return (description) -> Files.createTempDirectory(Files.createDirectories(location), "project-");
+	}
+
+	@Bean
+	public ProjectArchiveGenerator projectArchiveGenerator(ProjectGenerationInvoker projectGenerationInvoker) {
+		return new ProjectArchiveGenerator(projectGenerationInvoker);
+	}
+
+	@Bean
+	public ProjectArchiveFilter projectArchiveFilter(InitializrMetadataProvider metadataProvider,
+			ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers,
+			ApplicationEventPublisher eventPublisher, ProjectArchiveGenerator projectArchiveGenerator,
+			CacheManager cacheManager) {
+		return new ProjectArchiveFilter(metadataProvider, descriptionCustomizers, eventPublisher,
+				projectArchiveGenerator, cacheManager.getCache(ProjectArchiveFilter.CACHE_NAME),
+				cacheManager.getCache(ProjectPreviewFilter.CACHE_NAME));
+	}
+
+	@Bean
+	public FilterRegistrationBean<ProjectArchiveFilter> projectArchiveFilterRegistration(
+			ProjectArchiveFilter projectArchiveFilter) {
+		FilterRegistrationBean<ProjectArchiveFilter> registration = new FilterRegistrationBean<>(projectArchiveFilter);
+		registration.addUrlPatterns("/starter.zip", "/starter.tgz");
+		return registration;
+	}
+
+	@Bean
+	public ProjectPreviewFilter projectPreviewFilter(InitializrMetadataProvider metadataProvider,
+			ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers,
+			ApplicationEventPublisher eventPublisher, ProjectArchiveGenerator projectArchiveGenerator,
+			CacheManager cacheManager) {
+		return new ProjectPreviewFilter(metadataProvider, descriptionCustomizers, eventPublisher,
+				projectArchiveGenerator, cacheManager.getCache(ProjectPreviewFilter.CACHE_NAME));
+	}
+
+	@Bean
+	public FilterRegistrationBean<ProjectPreviewFilter> projectPreviewFilterRegistration(
+			ProjectPreviewFilter projectPreviewFilter) {
+		FilterRegistrationBean<ProjectPreviewFilter> registration = new FilterRegistrationBean<>(projectPreviewFilter);
+		registration.addUrlPatterns(ProjectPreviewFilter.PATH, ProjectPreviewFilter.PATH + "/*");
+		return registration;
+	}
+
+	@Bean
+	public ProjectMetadataFilter projectMetadataFilter(InitializrMetadataProvider metadataProvider) {
+		return new ProjectMetadataFilter(metadataProvider);
+	}
+
+	@Bean
+	public FilterRegistrationBean<ProjectMetadataFilter> projectMetadataFilterRegistration(
+			ProjectMetadataFilter projectMetadataFilter) {
+		FilterRegistrationBean<ProjectMetadataFilter> registration = new FilterRegistrationBean<>(
+				projectMetadataFilter);
+		registration.addUrlPatterns("/", "/metadata/client", ProjectMetadataFilter.VERSIONED_PATH_PREFIX + "*");
+		return registration;
+	}
+
+	@Bean
+	public StaticResourcesConfigurer staticResourcesConfigurer(ResourceProperties resourceProperties) {
+		return new StaticResourcesConfigurer(resourceProperties.getStaticLocations());
+	}
+
+	@Bean
+	public HelpSectionCache helpSectionCache(CacheManager cacheManager) {
+		return new HelpSectionCache(cacheManager.getCache(HelpSectionCache.CACHE_NAME));
+	}
+
+	@Bean
+	public JCacheManagerCustomizer startJCacheManagerCustomizer() {
+		return (cacheManager) -> {
+			cacheManager.createCache(CacheableDependencyManagementVersionResolver.CACHE_NAME,
+					Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+							.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100))));
+			cacheManager.createCache(ProjectArchiveFilter.CACHE_NAME,
+					Eh107Configuration.fromEhcacheCacheConfiguration(
+							CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, Serializable.class,
+									ResourcePoolsBuilder.heap(10).offheap(64, MemoryUnit.MB))));
+			cacheManager.createCache(ProjectPreviewFilter.CACHE_NAME,
+					Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+							.newCacheConfigurationBuilder(String.class, Serializable.class,
+									ResourcePoolsBuilder.heap(10).offheap(64, MemoryUnit.MB))
+							.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(5)))));
+			cacheManager.createCache(HelpSectionCache.CACHE_NAME,
+					Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+							.newCacheConfigurationBuilder(String.class, String.class, ResourcePoolsBuilder.heap(200))));
+			cacheManager.enableStatistics(HelpSectionCache.CACHE_NAME, true);
+		};
 	}
 
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.spring.initializr.generator.buildsystem.DependencyScope;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties specific to the start.spring.io instance.
+ *
+ * @author Stephane Nicoll
+ */
+@ConfigurationProperties("start")
+public class StartProperties {
+
+	private final VersionResolver versionResolver = new VersionResolver();
+
+	private final Generation generation = new Generation();
+
+	private final Metadata metadata = new Metadata();
+
+	/**
+	 * Rules that customize the build of a project according to its dependencies and
+	 * platform version.
+	 */
+	private final List<BuildRule> buildRules = new ArrayList<>();
+
+	public VersionResolver getVersionResolver() {
+		return this.versionResolver;
+	}
+
+	public Generation getGeneration() {
+		return this.generation;
+	}
+
+	public Metadata getMetadata() {
+		return this.metadata;
+	}
+
+	public List<BuildRule> getBuildRules() {
+		return this.buildRules;
+	}
+
+	/**
+	 * Version resolver settings.
+	 */
+	public static class VersionResolver {
+
+		/**
+		 * Location of the version resolution cache. Resolved POMs and the index of
+		 * resolved managed dependencies are kept there so that they survive a restart. If
+		 * not set, a temporary directory is used.
+		 */
+		private String cacheLocation;
+
+		public String getCacheLocation() {
+			return this.cacheLocation;
+		}
+
+		public void setCacheLocation(String cacheLocation) {
+			this.cacheLocation = cacheLocation;
+		}
+
+	}
+
+	/**
+	 * Project generation settings.
+	 */
+	public static class Generation {
+
+		/**
+		 * Directory in which projects are generated before being archived. If not set,
+		 * the system temporary directory is used.
+		 */
+		private String directory;
+
+		/**
+		 * Ratio of the invocations of customizers and contributors that are timed,
+		 * between 0 and 1.
+		 */
+		private double timingSampleRate = 0.1;
+
+		public String getDirectory() {
+			return this.directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public double getTimingSampleRate() {
+			return this.timingSampleRate;
+		}
+
+		public void setTimingSampleRate(double timingSampleRate) {
+			this.timingSampleRate = timingSampleRate;
+		}
+
+	}
+
+	/**
+	 * Metadata settings.
+	 */
+	public static class Metadata {
+
+		/**
+		 * Interval after which the Spring Boot versions are refreshed. The refresh
+		 * happens in the background and the current metadata is served in the meantime.
+		 */
+		private Duration refreshInterval = Duration.ofMinutes(10);
+
+		public Duration getRefreshInterval() {
+			return this.refreshInterval;
+		}
+
+		public void setRefreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
+	}
+
+	/**
+	 * Build rule settings.
+	 */
+	public static class BuildRule {
+
+		/**
+		 * Ids of the dependencies that must all be present for the rule to apply.
+		 */
+		private List<String> allOf = new ArrayList<>();
+
+		/**
+		 * Ids of the dependencies of which at least one must be present for the rule to
+		 * apply.
+		 */
+		private List<String> anyOf = new ArrayList<>();
+
+		/**
+		 * Range of platform versions the rule applies to. If not set, the rule applies to
+		 * all versions.
+		 */
+		private String platformVersion;
+
+		/**
+		 * Dependencies to add to the build.
+		 */
+		private List<Dependency> add = new ArrayList<>();
+
+		/**
+		 * Ids of the dependencies to remove from the build. The bom and repository of a
+		 * removed dependency are kept.
+		 */
+		private List<String> remove = new ArrayList<>();
+
+		/**
+		 * Version properties to set on the build.
+		 */
+		private Map<String, String> versionProperties = new LinkedHashMap<>();
+
+		public List<String> getAllOf() {
+			return this.allOf;
+		}
+
+		public void setAllOf(List<String> allOf) {
+			this.allOf = allOf;
+		}
+
+		public List<String> getAnyOf() {
+			return this.anyOf;
+		}
+
+		public void setAnyOf(List<String> anyOf) {
+			this.anyOf = anyOf;
+		}
+
+		public String getPlatformVersion() {
+			return this.platformVersion;
+		}
+
+		public void setPlatformVersion(String platformVersion) {
+			this.platformVersion = platformVersion;
+		}
+
+		public List<Dependency> getAdd() {
+			return this.add;
+		}
+
+		public void setAdd(List<Dependency> add) {
+			this.add = add;
+		}
+
+		public List<String> getRemove() {
+			return this.remove;
+		}
+
+		public void setRemove(List<String> remove) {
+			this.remove = remove;
+		}
+
+		public Map<String, String> getVersionProperties() {
+			return this.versionProperties;
+		}
+
+		public void setVersionProperties(Map<String, String> versionProperties) {
+			this.versionProperties = versionProperties;
+		}
+
+		/**
+		 * A dependency added by a build rule.
+		 */
+		public static class Dependency {
+
+			/**
+			 * Id of the dependency in the build.
+			 */
+			private String id;
+
+			/**
+			 * Group ID of the dependency.
+			 */
+			private String groupId;
+
+			/**
+			 * Artifact ID of the dependency.
+			 */
+			private String artifactId;
+
+			/**
+			 * Scope of the dependency.
+			 */
+			private DependencyScope scope = DependencyScope.COMPILE;
+
+			public String getId() {
+				return this.id;
+			}
+
+			public void setId(String id) {
+				this.id = id;
+			}
+
+			public String getGroupId() {
+				return this.groupId;
+			}
+
+			public void setGroupId(String groupId) {
+				this.groupId = groupId;
+			}
+
+			public String getArtifactId() {
+				return this.artifactId;
+			}
+
+			public void setArtifactId(String artifactId) {
+				this.artifactId = artifactId;
+			}
+
+			public DependencyScope getScope() {
+				return this.scope;
+			}
+
+			public void setScope(DependencyScope scope) {
+				this.scope = scope;
+			}
+
+		}
+
+	}
+
+}
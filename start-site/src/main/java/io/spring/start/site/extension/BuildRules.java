@@ -0,0 +1,236 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.extension;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.buildsystem.DependencyContainer;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.generator.version.VersionParser;
+import io.spring.initializr.generator.version.VersionProperty;
+import io.spring.initializr.generator.version.VersionRange;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.start.site.StartProperties;
+import io.spring.start.site.StartProperties.BuildRule;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+
+/**
+ * Compiled {@link BuildRule build rules}. Each dependency id that is used by the
+ * condition of a rule is assigned an ordinal once so that the dependencies of a build are
+ * gathered as a bitset in a single pass and the condition of each rule is evaluated using
+ * bitwise operations.
+ * <p>
+ * Conditions are evaluated against the dependencies of the build as they are before any
+ * rule is applied. The dependencies that a rule matches on or removes must be defined by
+ * the metadata, which is checked when the rules are compiled.
+ *
+ * @author Stephane Nicoll
+ */
+public final class BuildRules {
+
+	private final Map<String, Integer> ordinals;
+
+	private final int words;
+
+	private final List<Rule> rules;
+
+	private BuildRules(Map<String, Integer> ordinals, List<Rule> rules) {
+		this.ordinals = ordinals;
+		this.words = (ordinals.size() + 63) >>> 6;
+		this.rules = rules;
+	}
+
+	/**
+	 * Compile the specified {@link BuildRule build rules}.
+	 * @param definitions the rules to compile, in the order they should be applied
+	 * @param metadata the metadata that defines the dependencies the rules refer to
+	 * @return the compiled rules
+	 * @throws IllegalStateException if a rule refers to a dependency that the metadata
+	 * does not define
+	 * @see StartProperties#getBuildRules()
+	 */
+	public static BuildRules compile(List<BuildRule> definitions, InitializrMetadata metadata) {
+		validate(definitions, metadata);
+		Map<String, Integer> ordinals = new HashMap<>();
+		List<Rule> rules = new ArrayList<>();
+		for (BuildRule definition : definitions) {
+			rules.add(new Rule(mask(ordinals, definition.getAllOf()), mask(ordinals, definition.getAnyOf()),
+					parseRange(definition.getPlatformVersion()), new ArrayList<>(definition.getAdd()),
+					new ArrayList<>(definition.getRemove()), new LinkedHashMap<>(definition.getVersionProperties())));
+		}
+		return new BuildRules(Collections.unmodifiableMap(ordinals), Collections.unmodifiableList(rules));
+	}
+
+	private static void validate(List<BuildRule> definitions, InitializrMetadata metadata) {
+		Set<String> unknownIds = new LinkedHashSet<>();
+		for (BuildRule definition : definitions) {
+			Stream.of(definition.getAllOf(), definition.getAnyOf(), definition.getRemove()).flatMap(List::stream)
+					.filter((id) -> metadata.getDependencies().get(id) == null).forEach(unknownIds::add);
+		}
+		if (!unknownIds.isEmpty()) {
+			throw new IllegalStateException("Build rules refer to unknown dependencies " + unknownIds);
+		}
+	}
+
+	private static long[] mask(Map<String, Integer> ordinals, List<String> ids) {
+		BitSet mask = new BitSet();
+		for (String id : ids) {
+			mask.set(ordinals.computeIfAbsent(id, (key) -> ordinals.size()));
+		}
+		return mask.toLongArray();
+	}
+
+	private static VersionRange parseRange(String range) {
+		return (range != null) ? VersionParser.DEFAULT.parseRange(range) : null;
+	}
+
+	/**
+	 * Apply the rules whose condition matches to the specified {@link Build}.
+	 * @param build the build to customize
+	 * @param platformVersion the platform version of the project
+	 * @param metadata the metadata to use to keep the bom and repository of removed
+	 * dependencies
+	 * @param billOfMaterialsIndex the index to use to resolve the bom of removed
+	 * dependencies
+	 */
+	public void apply(Build build, Version platformVersion, InitializrMetadata metadata,
+			BillOfMaterialsIndex billOfMaterialsIndex) {
+		long[] dependencies = dependencies(build);
+		for (Rule rule : this.rules) {
+			if (rule.matches(dependencies, platformVersion)) {
+				rule.apply(build, platformVersion, metadata, billOfMaterialsIndex);
+			}
+		}
+	}
+
+	private long[] dependencies(Build build) {
+		long[] dependencies = new long[this.words];
+		build.dependencies().ids().forEach((id) -> {
+			Integer ordinal = this.ordinals.get(id);
+			if (ordinal != null) {
+				dependencies[ordinal >>> 6] |= 1L << ordinal;
+			}
+		});
+		return dependencies;
+	}
+
+	/**
+	 * A compiled build rule.
+	 */
+	private static final class Rule {
+
+		private final long[] allOf;
+
+		private final long[] anyOf;
+
+		private final VersionRange platformVersion;
+
+		private final List<BuildRule.Dependency> add;
+
+		private final List<String> remove;
+
+		private final Map<String, String> versionProperties;
+
+		Rule(long[] allOf, long[] anyOf, VersionRange platformVersion, List<BuildRule.Dependency> add,
+				List<String> remove, Map<String, String> versionProperties) {
+			this.allOf = allOf;
+			this.anyOf = anyOf;
+			this.platformVersion = platformVersion;
+			this.add = add;
+			this.remove = remove;
+			this.versionProperties = versionProperties;
+		}
+
+		boolean matches(long[] dependencies, Version platformVersion) {
+			return containsAll(dependencies) && containsAny(dependencies) && (this.platformVersion == null
+					|| (platformVersion != null && this.platformVersion.match(platformVersion)));
+		}
+
+		private boolean containsAll(long[] dependencies) {
+			for (int i = 0; i < this.allOf.length; i++) {
+				if ((this.allOf[i] & ~dependencies[i]) != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean containsAny(long[] dependencies) {
+			if (this.anyOf.length == 0) {
+				return true;
+			}
+			for (int i = 0; i < this.anyOf.length; i++) {
+				if ((this.anyOf[i] & dependencies[i]) != 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void apply(Build build, Version platformVersion, InitializrMetadata metadata,
+				BillOfMaterialsIndex billOfMaterialsIndex) {
+			DependencyContainer dependencies = build.dependencies();
+			for (BuildRule.Dependency dependency : this.add) {
+				dependencies.add(dependency.getId(), dependency.getGroupId(), dependency.getArtifactId(),
+						dependency.getScope());
+			}
+			this.versionProperties
+					.forEach((name, value) -> build.addVersionProperty(VersionProperty.of(name, false), value));
+			for (String id : this.remove) {
+				remove(build, id, platformVersion, metadata, billOfMaterialsIndex);
+			}
+		}
+
+		/*
+		 * Remove the dependency with the specified id, making sure that any metadata
+		 * information is kept.
+		 */
+		private void remove(Build build, String id, Version platformVersion, InitializrMetadata metadata,
+				BillOfMaterialsIndex billOfMaterialsIndex) {
+			Dependency dependency = metadata.getDependencies().get(id);
+			if (dependency != null) {
+				if (dependency.getBom() != null) {
+					BillOfMaterials bom = billOfMaterialsIndex.resolve(dependency.getBom(), platformVersion);
+					if (bom != null) {
+						build.boms().add(dependency.getBom());
+						if (bom.getVersionProperty() != null) {
+							build.addVersionProperty(bom.getVersionProperty(), bom.getVersion());
+						}
+					}
+				}
+				if (dependency.getRepository() != null) {
+					build.repositories().add(dependency.getRepository());
+				}
+			}
+			build.dependencies().remove(id);
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.extension;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+
+/**
+ * A {@link BuildCustomizer} that applies the {@link BuildRules} of the site.
+ *
+ * @author Stephane Nicoll
+ */
+public class BuildRulesBuildCustomizer implements BuildCustomizer<Build> {
+
+	private final BuildRules rules;
+
+	private final InitializrMetadata metadata;
+
+	private final BillOfMaterialsIndex billOfMaterialsIndex;
+
+	private final ResolvedProjectDescription description;
+
+	public BuildRulesBuildCustomizer(BuildRules rules, InitializrMetadata metadata,
+			BillOfMaterialsIndex billOfMaterialsIndex, ResolvedProjectDescription description) {
+		this.rules = rules;
+		this.metadata = metadata;
+		this.billOfMaterialsIndex = billOfMaterialsIndex;
+		this.description = description;
+	}
+
+	@Override
+	public void customize(Build build) {
+		this.rules.apply(build, this.description.getPlatformVersion(), this.metadata, this.billOfMaterialsIndex);
+	}
+
+}
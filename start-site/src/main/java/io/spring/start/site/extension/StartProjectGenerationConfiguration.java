@@ -27,6 +27,9 @@ import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.start.site.extension.springboot.SpringBootProjectGenerationConfiguration;
 import io.spring.start.site.extension.springcloud.SpringCloudProjectGenerationConfiguration;
 import io.spring.start.site.extension.springrestdocs.SpringRestDocsProjectGenerationConfiguration;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+import io.spring.start.site.support.DependencyIndex;
+import io.spring.start.site.support.DependencyIndex.DependencySet;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -53,6 +56,11 @@ public class StartProjectGenerationConfiguration {
 		this.description = description;
 	}
 
+	@Bean
+	public DependencySet requestedDependencies(DependencyIndex dependencyIndex) {
+		return dependencyIndex.of(this.description.getRequestedDependencies().keySet().stream());
+	}
+
 	@Bean
 	@ConditionalOnRequestedDependency("webflux")
 	public ReactorTestBuildCustomizer reactorTestBuildCustomizer() {
@@ -80,14 +88,9 @@ public class StartProjectGenerationConfiguration {
 	}
 
 	@Bean
-	public SpringKafkaBuildCustomizer springKafkaBuildCustomizer() {
-		return new SpringKafkaBuildCustomizer(this.description);
-	}
-
-	@Bean
-	@ConditionalOnRequestedDependency("session")
-	public SpringSessionBuildCustomizer springSessionBuildCustomizer() {
-		return new SpringSessionBuildCustomizer(this.description);
+	public BuildRulesBuildCustomizer buildRulesBuildCustomizer(BuildRules buildRules,
+			BillOfMaterialsIndex billOfMaterialsIndex) {
+		return new BuildRulesBuildCustomizer(buildRules, this.metadata, billOfMaterialsIndex, this.description);
 	}
 
 	@Bean
@@ -16,9 +16,9 @@
 
 package io.spring.start.site.extension.springcloud;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,12 +28,13 @@ import java.util.stream.Collectors;
 import io.spring.initializr.generator.buildsystem.Build;
 import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
 import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
-import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
-import io.spring.initializr.generator.io.text.MustacheSection;
+import io.spring.initializr.generator.io.text.Section;
 import io.spring.initializr.generator.project.ResolvedProjectDescription;
 import io.spring.initializr.generator.spring.documentation.HelpDocument;
 import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
 import io.spring.initializr.generator.version.Version;
+import io.spring.start.site.support.CompiledTemplates;
+import io.spring.start.site.support.HelpSectionCache;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -59,17 +60,21 @@ class SpringCloudFunctionHelpDocumentCustomizer implements HelpDocumentCustomize
 
 	private final Set<String> buildDependencies;
 
-	private final MustacheTemplateRenderer templateRenderer;
+	private final CompiledTemplates templates;
+
+	private final HelpSectionCache sectionCache;
 
 	private final SpringCloudProjectVersionResolver projectVersionResolver;
 
 	private final ResolvedProjectDescription description;
 
 	SpringCloudFunctionHelpDocumentCustomizer(Build build, ResolvedProjectDescription description,
-			MustacheTemplateRenderer templateRenderer, SpringCloudProjectVersionResolver projectVersionResolver) {
+			CompiledTemplates templates, HelpSectionCache sectionCache,
+			SpringCloudProjectVersionResolver projectVersionResolver) {
 		this.buildDependencies = build.dependencies().ids().collect(Collectors.toSet());
 		this.description = description;
-		this.templateRenderer = templateRenderer;
+		this.templates = templates;
+		this.sectionCache = sectionCache;
 		this.projectVersionResolver = projectVersionResolver;
 	}
 
@@ -82,44 +87,53 @@ class SpringCloudFunctionHelpDocumentCustomizer implements HelpDocumentCustomize
 
 	private void addBuildSetupInfo(HelpDocument helpDocument) {
 		Version bootVersion = this.description.getPlatformVersion();
+		String buildSystemId = this.description.getBuildSystem().id();
+		List<CloudPlatform> cloudPlatforms = cloudPlatformsFromDependencies();
+		String key = "spring-cloud-function:" + buildSystemId + ":" + bootVersion + ":" + cloudPlatforms;
+		Section section = this.sectionCache.get(key,
+				() -> getBuildSetupSections(bootVersion, buildSystemId, cloudPlatforms));
+		if (section != null) {
+			helpDocument.nextSteps().addSection(section);
+		}
+	}
+
+	private List<Section> getBuildSetupSections(Version bootVersion, String buildSystemId,
+			List<CloudPlatform> cloudPlatforms) {
 		String springCloudFunctionVersion = this.projectVersionResolver.resolveVersion(bootVersion,
 				SPRING_CLOUD_FUNCTION_ARTIFACT_ID);
 		if (springCloudFunctionVersion == null) {
 			LOG.warn("Spring Cloud Function version could not be resolved for Spring Boot version: "
 					+ bootVersion.toString());
-			return;
+			return null;
 		}
 		if (isSnapshot(springCloudFunctionVersion)) {
 			LOG.debug("Spring Cloud Function version " + springCloudFunctionVersion
 					+ " is a snapshot. No documents are present for this version to link to.");
-			return;
+			return Collections.emptyList();
 		}
-		String buildSystemId = this.description.getBuildSystem().id();
-		Map<Boolean, List<CloudPlatform>> platformsByBuildSystemSupport = cloudPlatformsFromDependencies().stream()
-				.collect(Collectors.partitioningBy(
-						(cloudPlatform) -> cloudPlatform.getSupportedBuildSystems().contains(buildSystemId)));
-		platformsByBuildSystemSupport.get(true).forEach((cloudPlatform) -> helpDocument.nextSteps().addSection(
+		Map<Boolean, List<CloudPlatform>> platformsByBuildSystemSupport = cloudPlatforms.stream().collect(Collectors
+				.partitioningBy((cloudPlatform) -> cloudPlatform.getSupportedBuildSystems().contains(buildSystemId)));
+		List<Section> sections = new ArrayList<>();
+		platformsByBuildSystemSupport.get(true).forEach((cloudPlatform) -> sections.add(
 				getSection(springCloudFunctionVersion, buildSystemId, cloudPlatform, getTemplateName(cloudPlatform))));
 		platformsByBuildSystemSupport.get(false)
-				.forEach((cloudPlatform) -> helpDocument.nextSteps().addSection(getSection(springCloudFunctionVersion,
-						buildSystemId, cloudPlatform, TEMPLATE_PREFIX + MISSING_TEMPLATE_SUFFIX)));
+				.forEach((cloudPlatform) -> sections.add(getSection(springCloudFunctionVersion, buildSystemId,
+						cloudPlatform, TEMPLATE_PREFIX + MISSING_TEMPLATE_SUFFIX)));
+		return sections;
 	}
 
 	private boolean isSnapshot(String springCloudFunctionVersion) {
 		return springCloudFunctionVersion.toUpperCase().contains(SNAPSHOT);
 	}
 
-	private Set<CloudPlatform> cloudPlatformsFromDependencies() {
-		return new HashSet<>(Arrays.stream(CloudPlatform.values())
-				.collect(Collectors.partitioningBy(
-						(cloudPlatform) -> this.buildDependencies.contains(cloudPlatform.getDependencyId())))
-				.get(true));
+	private List<CloudPlatform> cloudPlatformsFromDependencies() {
+		return Arrays.stream(CloudPlatform.values())
+				.filter((cloudPlatform) -> this.buildDependencies.contains(cloudPlatform.getDependencyId()))
+				.collect(Collectors.toList());
 	}
 
-	private MustacheSection getSection(String version, String buildSystemId, CloudPlatform cloudPlatform,
-			String templateName) {
-		return new MustacheSection(this.templateRenderer, templateName,
-				getModel(cloudPlatform, buildSystemId, version));
+	private Section getSection(String version, String buildSystemId, CloudPlatform cloudPlatform, String templateName) {
+		return this.templates.section(templateName, getModel(cloudPlatform, buildSystemId, version));
 	}
 
 	private Map<String, Object> getModel(CloudPlatform cloudPlatform, String buildSystemId, String version) {
@@ -21,6 +21,8 @@ import io.spring.initializr.generator.project.ResolvedProjectDescription;
 import io.spring.initializr.generator.spring.build.BuildCustomizer;
 import io.spring.initializr.generator.version.Version;
 import io.spring.initializr.generator.version.VersionReference;
+import io.spring.start.site.support.DependencyIndex.DependencySet;
+import io.spring.start.site.support.DependencyIndex.Selector;
 
 /**
  * Add the Spring Cloud GCP BOM for older releases now that the project has joined the
@@ -31,18 +33,22 @@ import io.spring.initializr.generator.version.VersionReference;
  */
 class SpringCloudGcpBomBuildCustomizer implements BuildCustomizer<Build> {
 
+	private static final Selector CLOUD_GCP = Selector.ofPrefix("cloud-gcp");
+
 	private final ResolvedProjectDescription description;
 
+	private final DependencySet requestedDependencies;
+
 	private static final Version VERSION_2_1_0_M1 = Version.parse("2.1.0.M1");
 
-	SpringCloudGcpBomBuildCustomizer(ResolvedProjectDescription description) {
+	SpringCloudGcpBomBuildCustomizer(ResolvedProjectDescription description, DependencySet requestedDependencies) {
 		this.description = description;
+		this.requestedDependencies = requestedDependencies;
 	}
 
 	@Override
 	public void customize(Build build) {
-		if (isSpringBootVersionBefore() && this.description.getRequestedDependencies().keySet().stream()
-				.anyMatch((id) -> id.startsWith("cloud-gcp"))) {
+		if (isSpringBootVersionBefore() && this.requestedDependencies.containsAny(CLOUD_GCP)) {
 			build.boms().add("spring-cloud-gcp", "org.springframework.cloud", "spring-cloud-gcp-dependencies",
 					VersionReference.ofValue("1.0.0.RELEASE"));
 		}
@@ -16,19 +16,18 @@
 
 package io.spring.start.site.extension.springcloud;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
-import io.spring.initializr.generator.buildsystem.Build;
-import io.spring.initializr.generator.io.template.TemplateRenderer;
+import io.spring.initializr.generator.io.text.Section;
 import io.spring.initializr.generator.spring.documentation.HelpDocument;
 import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
-import io.spring.initializr.metadata.DependenciesCapability;
 import io.spring.initializr.metadata.Dependency;
-import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.start.site.support.CompiledTemplates;
+import io.spring.start.site.support.DependencyIndex.DependencySet;
+import io.spring.start.site.support.DependencyIndex.Selector;
+import io.spring.start.site.support.HelpSectionCache;
 
 /**
  * A {@link HelpDocumentCustomizer} that adds a warning when user has requested Spring
@@ -39,31 +38,31 @@ import io.spring.initializr.metadata.InitializrMetadata;
  */
 class SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer implements HelpDocumentCustomizer {
 
-	private static final Set<String> maintenanceModuleIds = new HashSet<>(Arrays.asList("cloud-ribbon", "cloud-hystrix",
-			"cloud-hystrix-dashboard", "cloud-turbine", "cloud-turbine-stream", "cloud-zuul"));
+	private static final Selector MAINTENANCE_MODULES = Selector.ofIds("cloud-ribbon", "cloud-hystrix",
+			"cloud-hystrix-dashboard", "cloud-turbine", "cloud-turbine-stream", "cloud-zuul");
 
-	private final InitializrMetadata metadata;
+	private final DependencySet requestedDependencies;
 
-	private final Build build;
+	private final CompiledTemplates templates;
 
-	private final TemplateRenderer templateRenderer;
+	private final HelpSectionCache sectionCache;
 
-	SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer(InitializrMetadata metadata, Build build,
-			TemplateRenderer templateRenderer) {
-		this.metadata = metadata;
-		this.build = build;
-		this.templateRenderer = templateRenderer;
+	SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer(DependencySet requestedDependencies,
+			CompiledTemplates templates, HelpSectionCache sectionCache) {
+		this.requestedDependencies = requestedDependencies;
+		this.templates = templates;
+		this.sectionCache = sectionCache;
 	}
 
 	@Override
 	public void customize(HelpDocument helpDocument) {
-		DependenciesCapability availableDependencies = this.metadata.getDependencies();
-		Set<Dependency> maintenanceModeDependencies = this.build.dependencies().ids()
-				.filter(maintenanceModuleIds::contains).map(availableDependencies::get).filter(Objects::nonNull)
-				.collect(Collectors.toSet());
+		List<Dependency> maintenanceModeDependencies = this.requestedDependencies.select(MAINTENANCE_MODULES);
 		if (!maintenanceModeDependencies.isEmpty()) {
-			helpDocument.addSection(
-					new SpringCloudNetflixMaintenanceModeSection(maintenanceModeDependencies, this.templateRenderer));
+			String key = maintenanceModeDependencies.stream().map(Dependency::getId)
+					.collect(Collectors.joining(",", "spring-cloud-netflix-maintenance-mode:", ""));
+			Section section = this.sectionCache.get(key, () -> Collections.singletonList(
+					new SpringCloudNetflixMaintenanceModeSection(maintenanceModeDependencies, this.templates)));
+			helpDocument.addSection(section);
 		}
 	}
 
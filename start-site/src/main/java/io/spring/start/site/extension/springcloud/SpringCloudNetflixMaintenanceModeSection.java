@@ -16,13 +16,13 @@
 
 package io.spring.start.site.extension.springcloud;
 
-import java.util.Set;
+import java.util.Collections;
+import java.util.List;
 
-import io.spring.initializr.generator.io.template.TemplateRenderer;
-import io.spring.initializr.generator.io.text.BulletedSection;
 import io.spring.initializr.generator.io.text.Section;
 import io.spring.initializr.generator.spring.documentation.PreDefinedSection;
 import io.spring.initializr.metadata.Dependency;
+import io.spring.start.site.support.CompiledTemplates;
 
 /**
  * A {@link Section} that provides information about Spring Cloud Netflix maintenance mode
@@ -36,12 +36,10 @@ class SpringCloudNetflixMaintenanceModeSection extends PreDefinedSection {
 
 	private static final String TEMPLATE_NAME = "spring-cloud-netflix-maintenance-mode";
 
-	SpringCloudNetflixMaintenanceModeSection(Set<Dependency> maintenanceModeDependencies,
-			TemplateRenderer templateRenderer) {
+	SpringCloudNetflixMaintenanceModeSection(List<Dependency> maintenanceModeDependencies,
+			CompiledTemplates templates) {
 		super(WARNING_MAINTENANCE_MODE);
-		BulletedSection<Dependency> dependencies = new BulletedSection<>(templateRenderer, TEMPLATE_NAME);
-		maintenanceModeDependencies.forEach(dependencies::addItem);
-		addSection(dependencies);
+		addSection(templates.section(TEMPLATE_NAME, Collections.singletonMap("items", maintenanceModeDependencies)));
 	}
 
 }
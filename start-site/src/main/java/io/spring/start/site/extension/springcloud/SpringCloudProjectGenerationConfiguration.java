@@ -22,12 +22,14 @@ import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
 import io.spring.initializr.generator.condition.ConditionalOnBuildSystem;
 import io.spring.initializr.generator.condition.ConditionalOnPlatformVersion;
 import io.spring.initializr.generator.condition.ConditionalOnRequestedDependency;
-import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
-import io.spring.initializr.generator.io.template.TemplateRenderer;
 import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
 import io.spring.initializr.generator.project.ResolvedProjectDescription;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+import io.spring.start.site.support.CompiledTemplates;
+import io.spring.start.site.support.DependencyIndex.DependencySet;
+import io.spring.start.site.support.HelpSectionCache;
 
 import org.springframework.context.annotation.Bean;
 
@@ -50,31 +52,22 @@ public class SpringCloudProjectGenerationConfiguration {
 	}
 
 	@Bean
-	public SpringCloudFunctionBuildCustomizer springCloudFunctionBuildCustomizer() {
-		return new SpringCloudFunctionBuildCustomizer(this.metadata, this.description);
-	}
-
-	@Bean
-	public SpringCloudGcpBomBuildCustomizer springCloudGcpBomBuildCustomizer() {
-		return new SpringCloudGcpBomBuildCustomizer(this.description);
-	}
-
-	@Bean
-	public SpringCloudStreamBuildCustomizer springCloudStreamBuildCustomizer() {
-		return new SpringCloudStreamBuildCustomizer();
+	public SpringCloudGcpBomBuildCustomizer springCloudGcpBomBuildCustomizer(DependencySet requestedDependencies) {
+		return new SpringCloudGcpBomBuildCustomizer(this.description, requestedDependencies);
 	}
 
 	@Bean
 	@ConditionalOnPlatformVersion("2.1.0.RELEASE")
-	public SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer maintenanceModuleHelpDocumentCustomizer(Build build,
-			TemplateRenderer templateRenderer) {
-		return new SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer(this.metadata, build, templateRenderer);
+	public SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer maintenanceModuleHelpDocumentCustomizer(
+			DependencySet requestedDependencies, CompiledTemplates templates, HelpSectionCache helpSectionCache) {
+		return new SpringCloudNetflixMaintenanceModeHelpDocumentCustomizer(requestedDependencies, templates,
+				helpSectionCache);
 	}
 
 	@Bean
-	SpringCloudProjectVersionResolver springCloudProjectVersionResolver(
+	SpringCloudProjectVersionResolver springCloudProjectVersionResolver(BillOfMaterialsIndex billOfMaterialsIndex,
 			DependencyManagementVersionResolver versionResolver) {
-		return new SpringCloudProjectVersionResolver(this.metadata, versionResolver);
+		return new SpringCloudProjectVersionResolver(billOfMaterialsIndex, versionResolver);
 	}
 
 	@Bean
@@ -96,8 +89,9 @@ public class SpringCloudProjectGenerationConfiguration {
 	@Bean
 	@ConditionalOnPlatformVersion("2.2.0.M4")
 	public SpringCloudFunctionHelpDocumentCustomizer springCloudFunctionHelpDocumentCustomizer(Build build,
-			MustacheTemplateRenderer templateRenderer, SpringCloudProjectVersionResolver versionResolver) {
-		return new SpringCloudFunctionHelpDocumentCustomizer(build, this.description, templateRenderer,
+			CompiledTemplates templates, HelpSectionCache helpSectionCache,
+			SpringCloudProjectVersionResolver versionResolver) {
+		return new SpringCloudFunctionHelpDocumentCustomizer(build, this.description, templates, helpSectionCache,
 				versionResolver);
 	}
 
@@ -18,8 +18,8 @@ package io.spring.start.site.extension.springcloud;
 
 import io.spring.initializr.generator.version.Version;
 import io.spring.initializr.metadata.BillOfMaterials;
-import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.start.site.support.BillOfMaterialsIndex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -40,12 +40,13 @@ class SpringCloudProjectVersionResolver {
 
 	private static final Log logger = LogFactory.getLog(SpringCloudProjectVersionResolver.class);
 
-	private final InitializrMetadata metadata;
+	private final BillOfMaterialsIndex billOfMaterialsIndex;
 
 	private final DependencyManagementVersionResolver resolver;
 
-	SpringCloudProjectVersionResolver(InitializrMetadata metadata, DependencyManagementVersionResolver resolver) {
-		this.metadata = metadata;
+	SpringCloudProjectVersionResolver(BillOfMaterialsIndex billOfMaterialsIndex,
+			DependencyManagementVersionResolver resolver) {
+		this.billOfMaterialsIndex = billOfMaterialsIndex;
 		this.resolver = resolver;
 	}
 
@@ -59,11 +60,11 @@ class SpringCloudProjectVersionResolver {
 	 * @return the appropriate project version or {@code null} if the resolution failed
 	 */
 	String resolveVersion(Version platformVersion, String dependencyId) {
-		BillOfMaterials bom = this.metadata.getConfiguration().getEnv().getBoms().get(SPRING_CLOUD_BOM_ID);
+		BillOfMaterials bom = this.billOfMaterialsIndex.resolve(SPRING_CLOUD_BOM_ID, platformVersion);
 		if (bom == null) {
 			return null;
 		}
-		String releaseTrainVersion = bom.resolve(platformVersion).getVersion();
+		String releaseTrainVersion = bom.getVersion();
 		logger.info("Retrieving version for artifact: " + dependencyId + " and release train version: "
 				+ releaseTrainVersion);
 		return this.resolver.resolve(SPRING_CLOUD_GROUP_ID, SPRING_CLOUD_DEPENDENCIES_ID, releaseTrainVersion)
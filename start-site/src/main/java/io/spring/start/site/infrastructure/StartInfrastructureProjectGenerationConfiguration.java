@@ -16,23 +16,49 @@
 
 package io.spring.start.site.infrastructure;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
 import io.spring.initializr.generator.spring.code.kotlin.InitializrMetadataKotlinVersionResolver;
 import io.spring.initializr.generator.spring.code.kotlin.KotlinVersionResolver;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.start.site.StartProperties;
+import io.spring.start.site.support.TimedGenerationComponentsBeanPostProcessor;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 
 /**
  * {@link ProjectGenerationConfiguration} for infrastructure that tune how metadata is
- * resolved.
+ * resolved and how generation is monitored.
  *
  * @author Stephane Nicoll
  */
 @ProjectGenerationConfiguration
 public class StartInfrastructureProjectGenerationConfiguration {
 
+	@Bean
+	public static BeanPostProcessor timedGenerationComponentsBeanPostProcessor(
+			ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<StartProperties> properties,
+			ObjectProvider<ResolvedProjectDescription> description, ObjectProvider<InitializrMetadata> metadata) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		double sampleRate = properties.getIfAvailable(StartProperties::new).getGeneration().getTimingSampleRate();
+		if (registry == null || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			// Generation is not sampled, leave its components as they are
+			return new BeanPostProcessor() {
+			};
+		}
+		return new TimedGenerationComponentsBeanPostProcessor(() -> registry, () -> 1.0d, (argument) -> {
+			ResolvedProjectDescription project = description.getObject();
+			return TimedGenerationComponentsBeanPostProcessor.projectTags(project.getBuildSystem(),
+					project.getPlatformVersion(), metadata.getObject());
+		});
+	}
+
 	@Bean
 	public KotlinVersionResolver kotlinVersionResolver(DependencyManagementVersionResolver versionResolver,
 			InitializrMetadata metadata) {
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.generator.version.VersionRange;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.BillOfMaterials.Mapping;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Resolve the {@link BillOfMaterials} of an {@link InitializrMetadata} for a given
+ * platform version without scanning the mappings of each bom.
+ * <p>
+ * The bounds of the compatibility ranges of a bom split the versions in consecutive
+ * segments, each bound being a segment of its own. All the versions of a segment resolve
+ * to the same mapping so a version is located using a binary search on the bounds and the
+ * resolved bom of a segment is kept once it has been requested. Indexes are built lazily
+ * from the current metadata and rebuilt whenever the metadata is updated.
+ *
+ * @author Stephane Nicoll
+ */
+public class BillOfMaterialsIndex {
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final AtomicReference<BomIndexes> indexes = new AtomicReference<>();
+
+	public BillOfMaterialsIndex(InitializrMetadataProvider metadataProvider) {
+		this.metadataProvider = metadataProvider;
+	}
+
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.indexes.set(new BomIndexes(event.getMetadata()));
+	}
+
+	/**
+	 * Resolve the bom with the specified id for the specified platform version.
+	 * @param id the id of the bom
+	 * @param platformVersion the platform version
+	 * @return the resolved bom, or {@code null} if no such bom exists
+	 * @throws IllegalStateException if no mapping of the bom matches the platform version
+	 * @see BillOfMaterials#resolve(Version)
+	 */
+	public BillOfMaterials resolve(String id, Version platformVersion) {
+		return getIndexes().resolve(id, platformVersion);
+	}
+
+	private BomIndexes getIndexes() {
+		BomIndexes indexes = this.indexes.get();
+		if (indexes == null) {
+			this.indexes.compareAndSet(null, new BomIndexes(this.metadataProvider.get()));
+			indexes = this.indexes.get();
+		}
+		return indexes;
+	}
+
+	/**
+	 * The indexes of the boms of a given {@link InitializrMetadata}.
+	 */
+	private static final class BomIndexes {
+
+		private final Map<String, BillOfMaterials> boms;
+
+		private final Map<String, BomIndex> bomIndexes = new ConcurrentHashMap<>();
+
+		BomIndexes(InitializrMetadata metadata) {
+			this.boms = metadata.getConfiguration().getEnv().getBoms();
+		}
+
+		BillOfMaterials resolve(String id, Version platformVersion) {
+			BillOfMaterials bom = this.boms.get(id);
+			if (bom == null) {
+				return null;
+			}
+			if (bom.getMappings().isEmpty()) {
+				return bom;
+			}
+			return this.bomIndexes.computeIfAbsent(id, (key) -> new BomIndex(bom)).resolve(platformVersion);
+		}
+
+	}
+
+	/**
+	 * Index of the mappings of a single {@link BillOfMaterials}.
+	 */
+	private static final class BomIndex {
+
+		private final BillOfMaterials bom;
+
+		private final Version[] bounds;
+
+		private final AtomicReferenceArray<BillOfMaterials> segments;
+
+		BomIndex(BillOfMaterials bom) {
+			this.bom = bom;
+			this.bounds = collectBounds(bom);
+			this.segments = (this.bounds != null) ? new AtomicReferenceArray<>(this.bounds.length * 2 + 1) : null;
+		}
+
+		private static Version[] collectBounds(BillOfMaterials bom) {
+			TreeSet<Version> bounds = new TreeSet<>();
+			for (Mapping mapping : bom.getMappings()) {
+				VersionRange range = mapping.getRange();
+				if (range == null) {
+					return null;
+				}
+				bounds.add(range.getLowerVersion());
+				if (range.getHigherVersion() != null) {
+					bounds.add(range.getHigherVersion());
+				}
+			}
+			return bounds.toArray(new Version[0]);
+		}
+
+		BillOfMaterials resolve(Version platformVersion) {
+			if (this.segments == null) {
+				return this.bom.resolve(platformVersion);
+			}
+			int segment = segment(platformVersion);
+			BillOfMaterials resolved = this.segments.get(segment);
+			if (resolved == null) {
+				resolved = this.bom.resolve(platformVersion);
+				this.segments.compareAndSet(segment, null, resolved);
+			}
+			return resolved;
+		}
+
+		/**
+		 * Return the segment of the specified version. Even segments are the ranges
+		 * between two consecutive bounds, odd segments are the bounds themselves.
+		 * @param version the version
+		 * @return the segment of the version
+		 */
+		private int segment(Version version) {
+			int index = Arrays.binarySearch(this.bounds, version);
+			return (index >= 0) ? index * 2 + 1 : -(index + 1) * 2;
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Mustache.Compiler;
+import com.samskivert.mustache.Template;
+import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
+import io.spring.initializr.generator.io.text.Section;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+/**
+ * Mustache templates of the site, compiled once. A compiled template keeps its static
+ * fragments as they are so that executing it writes these fragments and the values of its
+ * variables directly to the output rather than rendering the whole template to a
+ * {@link String} first, as {@link MustacheTemplateRenderer} does.
+ *
+ * @author Stephane Nicoll
+ */
+public final class CompiledTemplates {
+
+	private final Map<String, Template> templates;
+
+	private CompiledTemplates(Map<String, Template> templates) {
+		this.templates = templates;
+	}
+
+	/**
+	 * Compile the {@code *.mustache} templates available at the specified location. Each
+	 * template is named after its file name, without the extension.
+	 * @param location the location of the templates, e.g. {@code classpath:/templates}
+	 * @return the compiled templates
+	 */
+	public static CompiledTemplates compile(String location) {
+		ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		Compiler compiler = Mustache.compiler()
+				.withLoader((name) -> reader(resolver.getResource(location + "/" + name + ".mustache")))
+				.escapeHTML(false);
+		Map<String, Template> templates = new LinkedHashMap<>();
+		try {
+			for (Resource resource : resolver.getResources(location + "/*.mustache")) {
+				try (Reader reader = reader(resource)) {
+					templates.put(StringUtils.stripFilenameExtension(resource.getFilename()), compiler.compile(reader));
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to compile templates from " + location, ex);
+		}
+		return new CompiledTemplates(Collections.unmodifiableMap(templates));
+	}
+
+	private static Reader reader(Resource resource) throws IOException {
+		return new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Return the names of the available templates.
+	 * @return the template names
+	 */
+	public Set<String> getNames() {
+		return this.templates.keySet();
+	}
+
+	/**
+	 * Execute the template with the specified name, writing its output to the specified
+	 * {@link Writer}.
+	 * @param name the name of the template
+	 * @param context the context to use to resolve the variables of the template
+	 * @param out the writer to use
+	 */
+	public void write(String name, Object context, Writer out) {
+		getTemplate(name).execute(context, out);
+	}
+
+	/**
+	 * Return a {@link Section} that executes the template with the specified name. As
+	 * other sections that render a template, the output is followed by a new line.
+	 * @param name the name of the template
+	 * @param context the context to use to resolve the variables of the template
+	 * @return a section for that template
+	 */
+	public Section section(String name, Object context) {
+		Template template = getTemplate(name);
+		return (writer) -> {
+			template.execute(context, writer);
+			writer.println();
+		};
+	}
+
+	private Template getTemplate(String name) {
+		Template template = this.templates.get(name);
+		if (template == null) {
+			throw new IllegalArgumentException("No such template '" + name + "'");
+		}
+		return template;
+	}
+
+}
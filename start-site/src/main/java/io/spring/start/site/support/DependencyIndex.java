@@ -0,0 +1,242 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyGroup;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Assign a dense ordinal to each {@link Dependency} of an {@link InitializrMetadata} so
+ * that a set of dependencies is represented as a bitset. A {@link Selector} that matches
+ * several dependencies, such as all the dependencies whose id starts with a given prefix,
+ * is compiled once to a mask of the ordinals it matches so that checking whether a set
+ * contains any of them is a bitwise operation. The index is built from the current
+ * metadata the first time it is used and rebuilt whenever the metadata is updated.
+ *
+ * @author Stephane Nicoll
+ */
+public class DependencyIndex {
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final AtomicReference<Ordinals> ordinals = new AtomicReference<>();
+
+	public DependencyIndex(InitializrMetadataProvider metadataProvider) {
+		this.metadataProvider = metadataProvider;
+	}
+
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.ordinals.set(new Ordinals(event.getMetadata()));
+	}
+
+	/**
+	 * Return the ordinal of the dependency with the specified id.
+	 * @param id the id of a dependency
+	 * @return the ordinal of the dependency or {@code -1} if no such dependency exists
+	 */
+	public int ordinal(String id) {
+		return getOrdinals().ordinal(id);
+	}
+
+	/**
+	 * Return the {@link DependencySet} of the specified dependency ids. Ids that do not
+	 * match a dependency of the metadata are ignored.
+	 * @param ids the ids of the dependencies
+	 * @return a set of these dependencies
+	 */
+	public DependencySet of(Stream<String> ids) {
+		Ordinals ordinals = getOrdinals();
+		long[] words = new long[(ordinals.dependencies.length + 63) >>> 6];
+		ids.forEach((id) -> {
+			int ordinal = ordinals.ordinal(id);
+			if (ordinal != -1) {
+				words[ordinal >>> 6] |= 1L << ordinal;
+			}
+		});
+		return new DependencySet(ordinals, words);
+	}
+
+	private Ordinals getOrdinals() {
+		Ordinals ordinals = this.ordinals.get();
+		if (ordinals == null) {
+			this.ordinals.compareAndSet(null, new Ordinals(this.metadataProvider.get()));
+			ordinals = this.ordinals.get();
+		}
+		return ordinals;
+	}
+
+	/**
+	 * The ordinals of the dependencies of a given {@link InitializrMetadata}.
+	 */
+	private static final class Ordinals {
+
+		private final Dependency[] dependencies;
+
+		private final Map<String, Integer> ordinals;
+
+		private final Map<Selector, long[]> masks = new ConcurrentHashMap<>();
+
+		Ordinals(InitializrMetadata metadata) {
+			List<Dependency> dependencies = new ArrayList<>();
+			for (DependencyGroup group : metadata.getDependencies().getContent()) {
+				dependencies.addAll(group.getContent());
+			}
+			this.dependencies = dependencies.toArray(new Dependency[0]);
+			Map<String, Integer> ordinals = new HashMap<>();
+			for (int i = 0; i < this.dependencies.length; i++) {
+				ordinals.put(this.dependencies[i].getId(), i);
+			}
+			this.ordinals = ordinals;
+		}
+
+		int ordinal(String id) {
+			Integer ordinal = this.ordinals.get(id);
+			return (ordinal != null) ? ordinal : -1;
+		}
+
+		long[] mask(Selector selector) {
+			return this.masks.computeIfAbsent(selector, (key) -> {
+				long[] words = new long[(this.dependencies.length + 63) >>> 6];
+				for (int i = 0; i < this.dependencies.length; i++) {
+					if (key.predicate.test(this.dependencies[i].getId())) {
+						words[i >>> 6] |= 1L << i;
+					}
+				}
+				return words;
+			});
+		}
+
+	}
+
+	/**
+	 * A set of dependencies of an {@link InitializrMetadata}.
+	 */
+	public static final class DependencySet {
+
+		private final Ordinals ordinals;
+
+		private final long[] words;
+
+		private DependencySet(Ordinals ordinals, long[] words) {
+			this.ordinals = ordinals;
+			this.words = words;
+		}
+
+		/**
+		 * Specify if this set contains the dependency with the specified id.
+		 * @param id the id of a dependency
+		 * @return {@code true} if the dependency belongs to this set
+		 */
+		public boolean contains(String id) {
+			int ordinal = this.ordinals.ordinal(id);
+			return ordinal != -1 && (this.words[ordinal >>> 6] & (1L << ordinal)) != 0;
+		}
+
+		/**
+		 * Specify if this set contains at least one of the dependencies matched by the
+		 * specified {@link Selector}.
+		 * @param selector the selector to use
+		 * @return {@code true} if at least one dependency of this set is selected
+		 */
+		public boolean containsAny(Selector selector) {
+			long[] mask = this.ordinals.mask(selector);
+			for (int i = 0; i < this.words.length; i++) {
+				if ((this.words[i] & mask[i]) != 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Return the dependencies of this set that are matched by the specified
+		 * {@link Selector}, in the order they are defined in the metadata.
+		 * @param selector the selector to use
+		 * @return the selected dependencies
+		 */
+		public List<Dependency> select(Selector selector) {
+			long[] mask = this.ordinals.mask(selector);
+			List<Dependency> dependencies = new ArrayList<>();
+			for (int i = 0; i < this.words.length; i++) {
+				long word = this.words[i] & mask[i];
+				while (word != 0) {
+					dependencies.add(this.ordinals.dependencies[(i << 6) + Long.numberOfTrailingZeros(word)]);
+					word &= word - 1;
+				}
+			}
+			return dependencies;
+		}
+
+	}
+
+	/**
+	 * Select dependencies according to their id. A selector is compiled to a mask the
+	 * first time it is used against a given instance of the metadata and should be
+	 * shared.
+	 */
+	public static final class Selector {
+
+		private final Predicate<String> predicate;
+
+		private Selector(Predicate<String> predicate) {
+			this.predicate = predicate;
+		}
+
+		/**
+		 * Return a selector that matches the dependencies with the specified ids.
+		 * @param ids the ids of the dependencies to match
+		 * @return a selector
+		 */
+		public static Selector ofIds(String... ids) {
+			Set<String> candidates = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ids)));
+			return new Selector(candidates::contains);
+		}
+
+		/**
+		 * Return a selector that matches the dependencies whose id starts with the
+		 * specified prefix.
+		 * @param prefix the prefix of the ids of the dependencies to match
+		 * @return a selector
+		 */
+		public static Selector ofPrefix(String prefix) {
+			return new Selector((id) -> id.startsWith(prefix));
+		}
+
+	}
+
+}
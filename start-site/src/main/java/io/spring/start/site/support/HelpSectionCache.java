@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.spring.initializr.generator.io.text.Section;
+import io.spring.initializr.generator.spring.documentation.HelpDocument;
+
+import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Cache of rendered {@link HelpDocument} sections. Sections whose content only depends on
+ * a small key, such as the build system and platform version of the project and a subset
+ * of its dependencies, are rendered once per key and the rendered content is written as
+ * is afterwards. The cache is cleared when the metadata is updated.
+ *
+ * @author Stephane Nicoll
+ */
+public class HelpSectionCache {
+
+	/**
+	 * The name of the cache holding rendered help sections.
+	 */
+	public static final String CACHE_NAME = "initializr.help-sections";
+
+	private final Cache cache;
+
+	public HelpSectionCache(Cache cache) {
+		this.cache = cache;
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.cache.clear();
+	}
+
+	/**
+	 * Return a {@link Section} that writes the rendered content of the sections for the
+	 * specified key. Sections are only created and rendered, in order, if no content is
+	 * cached for that key. If the supplier returns {@code null}, the sections could not
+	 * be determined and nothing is cached so that a subsequent call tries again.
+	 * @param key the key of the sections
+	 * @param sections a supplier of the sections to render, may supply {@code null}
+	 * @return a section writing the rendered content, or {@code null} if the sections
+	 * have no content
+	 */
+	public Section get(String key, Supplier<List<Section>> sections) {
+		String content = this.cache.get(key, String.class);
+		if (content == null) {
+			List<Section> candidates = sections.get();
+			if (candidates == null) {
+				return null;
+			}
+			content = render(candidates);
+			this.cache.put(key, content);
+		}
+		return (content.isEmpty()) ? null : section(content);
+	}
+
+	private static Section section(String content) {
+		return (writer) -> writer.print(content);
+	}
+
+	private static String render(List<Section> sections) {
+		StringWriter out = new StringWriter();
+		try (PrintWriter writer = new PrintWriter(out)) {
+			for (Section section : sections) {
+				section.write(writer);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return out.toString();
+	}
+
+}
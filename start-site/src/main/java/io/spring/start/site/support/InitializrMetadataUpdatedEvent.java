@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published when the {@link InitializrMetadata} has been updated.
+ *
+ * @author Stephane Nicoll
+ */
+public class InitializrMetadataUpdatedEvent extends ApplicationEvent {
+
+	private final InitializrMetadata metadata;
+
+	public InitializrMetadataUpdatedEvent(Object source, InitializrMetadata metadata) {
+		super(source);
+		this.metadata = metadata;
+	}
+
+	/**
+	 * Return the updated metadata.
+	 * @return the metadata
+	 */
+	public InitializrMetadata getMetadata() {
+		return this.metadata;
+	}
+
+}
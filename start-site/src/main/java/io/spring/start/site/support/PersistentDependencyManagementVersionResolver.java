@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A {@link DependencyManagementVersionResolver} that stores the managed dependencies of
+ * each resolved bom in an index on disk so that they do not have to be resolved again,
+ * even after a restart. The index can be shared by several instances and populated ahead
+ * of time.
+ * <p>
+ * Snapshot boms are never stored as their content may change.
+ *
+ * @author Stephane Nicoll
+ */
+public class PersistentDependencyManagementVersionResolver implements DependencyManagementVersionResolver {
+
+	private static final Log logger = LogFactory.getLog(PersistentDependencyManagementVersionResolver.class);
+
+	private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+	private final DependencyManagementVersionResolver delegate;
+
+	private final Path indexLocation;
+
+	public PersistentDependencyManagementVersionResolver(DependencyManagementVersionResolver delegate,
+			Path indexLocation) {
+		this.delegate = delegate;
+		this.indexLocation = indexLocation;
+	}
+
+	@Override
+	public Map<String, String> resolve(String groupId, String artifactId, String version) {
+		if (version.endsWith(SNAPSHOT_SUFFIX)) {
+			return this.delegate.resolve(groupId, artifactId, version);
+		}
+		Path entry = this.indexLocation.resolve(groupId).resolve(artifactId).resolve(version + ".properties");
+		Map<String, String> managedVersions = read(entry);
+		if (managedVersions == null) {
+			managedVersions = this.delegate.resolve(groupId, artifactId, version);
+			write(entry, managedVersions);
+		}
+		return managedVersions;
+	}
+
+	private Map<String, String> read(Path entry) {
+		if (!Files.isRegularFile(entry)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(entry)) {
+			properties.load(in);
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to read managed dependencies from " + entry, ex);
+			return null;
+		}
+		Map<String, String> managedVersions = new TreeMap<>();
+		properties.stringPropertyNames().forEach((key) -> managedVersions.put(key, properties.getProperty(key)));
+		return Collections.unmodifiableMap(managedVersions);
+	}
+
+	private void write(Path entry, Map<String, String> managedVersions) {
+		Properties properties = new Properties();
+		properties.putAll(managedVersions);
+		try {
+			Files.createDirectories(entry.getParent());
+			// Write to a temporary file first so that another instance sharing the
+			// index never reads a partial entry
+			Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				properties.store(out, null);
+			}
+			Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write managed dependencies to " + entry, ex);
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.support.InitializrMetadataUpdateStrategy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * An {@link InitializrMetadataProvider} that never blocks the caller on an update of the
+ * metadata. Once the metadata is older than the refresh interval, the current snapshot is
+ * still returned and a refresh is scheduled in the background. The refresh applies the
+ * {@link InitializrMetadataUpdateStrategy} to a fresh instance of the metadata that is
+ * swapped in once it is complete, at which point an
+ * {@link InitializrMetadataUpdatedEvent} is published.
+ * <p>
+ * A fresh instance starts from the Spring Boot versions of the current snapshot so that
+ * the last known versions are kept if the update fails.
+ *
+ * @author Stephane Nicoll
+ */
+public class StartInitializrMetadataProvider implements InitializrMetadataProvider {
+
+	private static final Log logger = LogFactory.getLog(StartInitializrMetadataProvider.class);
+
+	private final Supplier<InitializrMetadata> metadataFactory;
+
+	private final InitializrMetadataUpdateStrategy updateStrategy;
+
+	private final Executor executor;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final long refreshInterval;
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private volatile InitializrMetadata metadata;
+
+	private volatile long nextRefresh;
+
+	/**
+	 * Create an instance.
+	 * @param metadataFactory the factory of fresh instances of the metadata
+	 * @param updateStrategy the strategy to apply to update the metadata
+	 * @param executor the executor to use to refresh the metadata
+	 * @param eventPublisher the publisher of {@link InitializrMetadataUpdatedEvent}
+	 * @param refreshInterval the interval after which the metadata should be refreshed
+	 */
+	public StartInitializrMetadataProvider(Supplier<InitializrMetadata> metadataFactory,
+			InitializrMetadataUpdateStrategy updateStrategy, Executor executor,
+			ApplicationEventPublisher eventPublisher, Duration refreshInterval) {
+		this.metadataFactory = metadataFactory;
+		this.updateStrategy = updateStrategy;
+		this.executor = executor;
+		this.eventPublisher = eventPublisher;
+		this.refreshInterval = refreshInterval.toNanos();
+		this.metadata = metadataFactory.get();
+		this.nextRefresh = System.nanoTime();
+	}
+
+	@Override
+	public InitializrMetadata get() {
+		InitializrMetadata current = this.metadata;
+		if (System.nanoTime() - this.nextRefresh >= 0 && this.refreshing.compareAndSet(false, true)) {
+			try {
+				this.executor.execute(this::refresh);
+			}
+			catch (RejectedExecutionException ex) {
+				this.refreshing.set(false);
+			}
+		}
+		return current;
+	}
+
+	private void refresh() {
+		try {
+			InitializrMetadata metadata = this.metadataFactory.get();
+			metadata.updateSpringBootVersions(new ArrayList<>(this.metadata.getBootVersions().getContent()));
+			InitializrMetadata updatedMetadata = this.updateStrategy.update(metadata);
+			this.metadata = updatedMetadata;
+			this.eventPublisher.publishEvent(new InitializrMetadataUpdatedEvent(this, updatedMetadata));
+		}
+		catch (Exception ex) {
+			logger.warn("Failed to refresh metadata, the current metadata is kept", ex);
+		}
+		finally {
+			this.nextRefresh = System.nanoTime() + this.refreshInterval;
+			this.refreshing.set(false);
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.spring.initializr.generator.buildsystem.BuildSystem;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.project.contributor.ProjectContributor;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.DefaultMetadataElement;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * A {@link BeanPostProcessor} that times the invocations of the {@link BuildCustomizer
+ * build customizers}, {@link ProjectDescriptionCustomizer description customizers},
+ * {@link HelpDocumentCustomizer help document customizers} and {@link ProjectContributor
+ * contributors} of this instance. Timers are tagged with the class of the component, and
+ * the build system and Spring Boot version of the project. As the Spring Boot version is
+ * provided by the client, only the versions that the metadata advertises are used as is,
+ * any other version is tagged as {@code other}.
+ * <p>
+ * Only a ratio of invocations is timed, so that the overhead remains negligible under
+ * load. Components are proxied using their class, without redeclaring their interfaces,
+ * so that the generic type of a customizer can still be resolved.
+ *
+ * @author Stephane Nicoll
+ */
+public class TimedGenerationComponentsBeanPostProcessor implements BeanPostProcessor {
+
+	/**
+	 * The name of the timer.
+	 */
+	public static final String METRIC_NAME = "start.generation.components";
+
+	private static final String TIMED_PACKAGE = "io.spring.start.site.";
+
+	private static final String[] TIMED_METHODS = { "customize", "contribute" };
+
+	private final Supplier<MeterRegistry> meterRegistry;
+
+	private final Supplier<Double> sampleRate;
+
+	private final Function<Object, Tags> tagsResolver;
+
+	/**
+	 * Create an instance. The registry and the sample rate are resolved on first use.
+	 * @param meterRegistry the registry to use, may supply {@code null}
+	 * @param sampleRate the ratio of invocations to time, between 0 and 1
+	 * @param tagsResolver resolve the project tags from the argument of an invocation
+	 */
+	public TimedGenerationComponentsBeanPostProcessor(Supplier<MeterRegistry> meterRegistry,
+			Supplier<Double> sampleRate, Function<Object, Tags> tagsResolver) {
+		this.meterRegistry = SingletonSupplier.of(meterRegistry);
+		this.sampleRate = SingletonSupplier.of(sampleRate);
+		this.tagsResolver = tagsResolver;
+	}
+
+	/**
+	 * Return the tags that describe a project with the specified characteristics.
+	 * @param buildSystem the build system of the project or {@code null}
+	 * @param platformVersion the platform version of the project or {@code null}
+	 * @param metadata the metadata that advertises the supported platform versions
+	 * @return the tags
+	 */
+	public static Tags projectTags(BuildSystem buildSystem, Version platformVersion, InitializrMetadata metadata) {
+		return Tags.of("buildSystem", (buildSystem != null) ? buildSystem.id() : "none", "bootVersion",
+				bootVersionTag(platformVersion, metadata));
+	}
+
+	private static String bootVersionTag(Version platformVersion, InitializrMetadata metadata) {
+		if (platformVersion == null) {
+			return "none";
+		}
+		for (DefaultMetadataElement bootVersion : metadata.getBootVersions().getContent()) {
+			if (platformVersion.equals(Version.safeParse(bootVersion.getId()))) {
+				return bootVersion.getId();
+			}
+		}
+		return "other";
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!isTimed(bean)) {
+			return bean;
+		}
+		ProxyFactory proxyFactory = new ProxyFactory();
+		proxyFactory.setTarget(bean);
+		proxyFactory.setProxyTargetClass(true);
+		String className = bean.getClass().getName();
+		proxyFactory.addAdvice((MethodInterceptor) (invocation) -> invoke(invocation, className));
+		return proxyFactory.getProxy(bean.getClass().getClassLoader());
+	}
+
+	private boolean isTimed(Object bean) {
+		return (bean instanceof BuildCustomizer || bean instanceof ProjectDescriptionCustomizer
+				|| bean instanceof HelpDocumentCustomizer || bean instanceof ProjectContributor)
+				&& bean.getClass().getName().startsWith(TIMED_PACKAGE);
+	}
+
+	private Object invoke(MethodInvocation invocation, String className) throws Throwable {
+		if (!isTimedMethod(invocation.getMethod())
+				|| ThreadLocalRandom.current().nextDouble() >= this.sampleRate.get()) {
+			return invocation.proceed();
+		}
+		MeterRegistry registry = this.meterRegistry.get();
+		if (registry == null) {
+			return invocation.proceed();
+		}
+		Tags tags = this.tagsResolver.apply(invocation.getArguments()[0]).and("class", className);
+		Timer.Sample sample = Timer.start(registry);
+		try {
+			return invocation.proceed();
+		}
+		finally {
+			sample.stop(Timer.builder(METRIC_NAME).description("Invocations of project generation components")
+					.tags(tags).register(registry));
+		}
+	}
+
+	private static boolean isTimedMethod(Method method) {
+		if (method.getParameterCount() != 1) {
+			return false;
+		}
+		for (String candidate : TIMED_METHODS) {
+			if (candidate.equals(method.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Resolve the dependency management used at generation time for each advertised Spring
+ * Boot version ahead of time, so that the first user of a given version does not pay the
+ * resolution cost. Resolution happens in parallel when the application starts and
+ * whenever the metadata is updated.
+ * <p>
+ * Reports {@link Health#outOfService() out of service} until the resolutions triggered on
+ * startup have completed.
+ *
+ * @author Stephane Nicoll
+ */
+public class VersionResolutionWarmUp implements HealthIndicator {
+
+	private static final Log logger = LogFactory.getLog(VersionResolutionWarmUp.class);
+
+	private static final String SPRING_CLOUD_BOM_ID = "spring-cloud";
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final BillOfMaterialsIndex billOfMaterialsIndex;
+
+	private final DependencyManagementVersionResolver versionResolver;
+
+	private final Executor executor;
+
+	private final Map<String, CompletableFuture<Void>> warmUps = new ConcurrentHashMap<>();
+
+	private volatile boolean ready;
+
+	public VersionResolutionWarmUp(InitializrMetadataProvider metadataProvider,
+			BillOfMaterialsIndex billOfMaterialsIndex, DependencyManagementVersionResolver versionResolver,
+			Executor executor) {
+		this.metadataProvider = metadataProvider;
+		this.billOfMaterialsIndex = billOfMaterialsIndex;
+		this.versionResolver = versionResolver;
+		this.executor = executor;
+	}
+
+	@EventListener
+	public void onApplicationReady(ApplicationReadyEvent event) {
+		warmUp(this.metadataProvider.get()).whenComplete((result, ex) -> this.ready = true);
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		warmUp(event.getMetadata());
+	}
+
+	@Override
+	public Health health() {
+		return (this.ready) ? Health.up().build() : Health.outOfService().build();
+	}
+
+	/**
+	 * Resolve the dependency management of each Spring Boot version of the specified
+	 * {@link InitializrMetadata}. Versions that have already been resolved, or that are
+	 * being resolved, are not resolved again.
+	 * @param metadata the metadata to use
+	 * @return a future that completes once all versions have been resolved
+	 */
+	CompletableFuture<Void> warmUp(InitializrMetadata metadata) {
+		CompletableFuture<?>[] warmUps = metadata.getBootVersions().getContent().stream()
+				.map((bootVersion) -> warmUp(metadata, bootVersion.getId())).toArray(CompletableFuture[]::new);
+		return CompletableFuture.allOf(warmUps);
+	}
+
+	private CompletableFuture<Void> warmUp(InitializrMetadata metadata, String bootVersion) {
+		CompletableFuture<Void> warmUp = new CompletableFuture<>();
+		CompletableFuture<Void> existing = this.warmUps.putIfAbsent(bootVersion, warmUp);
+		if (existing != null) {
+			return existing;
+		}
+		this.executor.execute(() -> {
+			try {
+				resolve(metadata, bootVersion);
+			}
+			catch (Exception ex) {
+				logger.warn("Failed to resolve dependency management for Spring Boot " + bootVersion, ex);
+				// Allow a subsequent update to try again
+				this.warmUps.remove(bootVersion);
+			}
+			finally {
+				warmUp.complete(null);
+			}
+		});
+		return warmUp;
+	}
+
+	private void resolve(InitializrMetadata metadata, String bootVersion) {
+		this.versionResolver.resolve("org.springframework.boot", "spring-boot-dependencies", bootVersion);
+		Version version = Version.parse(bootVersion);
+		BillOfMaterials springCloudBom = metadata.getConfiguration().getEnv().getBoms().get(SPRING_CLOUD_BOM_ID);
+		if (springCloudBom == null || !hasMapping(springCloudBom, version)) {
+			// Spring Cloud is not available for that version, nothing to warm up
+			return;
+		}
+		BillOfMaterials bom = this.billOfMaterialsIndex.resolve(SPRING_CLOUD_BOM_ID, version);
+		this.versionResolver.resolve(bom.getGroupId(), bom.getArtifactId(), bom.getVersion());
+	}
+
+	private static boolean hasMapping(BillOfMaterials bom, Version version) {
+		return bom.getMappings().isEmpty() || bom.getMappings().stream()
+				.anyMatch((mapping) -> mapping.getRange() == null || mapping.getRange().match(version));
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The structure of a generated project held in memory, so that it can be previewed and
+ * written as an archive without being generated again.
+ *
+ * @author Stephane Nicoll
+ */
+public final class GeneratedProject implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<Entry> entries;
+
+	private final Map<String, Entry> files;
+
+	GeneratedProject(List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(entries);
+		Map<String, Entry> files = new LinkedHashMap<>();
+		for (Entry entry : entries) {
+			if (!entry.isDirectory()) {
+				files.put(entry.getName(), entry);
+			}
+		}
+		this.files = Collections.unmodifiableMap(files);
+	}
+
+	/**
+	 * Return the entries of the project, directories included, in the order they should
+	 * be written to an archive.
+	 * @return the entries
+	 */
+	public List<Entry> getEntries() {
+		return this.entries;
+	}
+
+	/**
+	 * Return the file with the specified name.
+	 * @param name the name of the file, relative to the root of the project
+	 * @return the file entry or {@code null} if no such file exists
+	 */
+	public Entry getFile(String name) {
+		return this.files.get(name);
+	}
+
+	/**
+	 * An entry of a generated project.
+	 */
+	public static final class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		private final int mode;
+
+		private final long lastModified;
+
+		private final byte[] content;
+
+		Entry(String name, int mode, long lastModified, byte[] content) {
+			this.name = name;
+			this.mode = mode;
+			this.lastModified = lastModified;
+			this.content = content;
+		}
+
+		/**
+		 * Return the name of the entry, relative to the root of the project. The name of
+		 * a directory ends with a {@code /}.
+		 * @return the name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the unix mode of the entry.
+		 * @return the mode
+		 */
+		public int getMode() {
+			return this.mode;
+		}
+
+		/**
+		 * Return the time the entry was last modified, in milliseconds.
+		 * @return the last modified time
+		 */
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		/**
+		 * Return the content of the file or {@code null} for a directory.
+		 * @return the content
+		 */
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Specify if the entry is a directory.
+		 * @return {@code true} for a directory
+		 */
+		public boolean isDirectory() {
+			return this.content == null;
+		}
+
+	}
+
+}
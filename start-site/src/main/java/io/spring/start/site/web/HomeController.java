@@ -13,23 +13,133 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package io.spring.start.site.web;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import io.spring.start.site.web.ProjectMetadataFilter.PrecomputedMetadata;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 
 /**
- * Main Controller.
+ * Main Controller. Serves the index page of the client with the current metadata inlined
+ * in a {@code <script id="initializr-metadata-content">} element so that the client does
+ * not have to fetch it. A {@code <meta name="initializr-metadata">} element holds the
+ * versioned path of the same metadata.
+ * <p>
+ * The page is rendered once per metadata snapshot and held in memory along with a gzipped
+ * variant. Rendered pages are discarded whenever the metadata is updated.
  *
  * @author Brian Clozel
+ * @author Stephane Nicoll
  */
 @Controller
 public class HomeController {
 
+	private static final String HEAD_END = "</head>";
+
+	private static final int MAX_ENTRIES = 16;
+
+	private static final String CONTENT_TYPE = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8).toString();
+
+	private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+	private final Resource index;
+
+	private final ProjectMetadataFilter metadataFilter;
+
+	private final Map<String, PrecompressedContent> pages = new ConcurrentHashMap<>();
+
+	private volatile IndexPage indexPage;
+
+	public HomeController(Resource index, ProjectMetadataFilter metadataFilter) {
+		this.index = index;
+		this.metadataFilter = metadataFilter;
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.pages.clear();
+	}
+
 	@GetMapping(path = "/", produces = MediaType.TEXT_HTML_VALUE)
-	public String home() {
-		return "forward:index.html";
+	public void home(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		IndexPage indexPage = getIndexPage();
+		if (indexPage == null) {
+			response.sendError(HttpStatus.NOT_FOUND.value());
+			return;
+		}
+		PrecomputedMetadata metadata = this.metadataFilter.getClientMetadata(request);
+		String metadataPath = request.getContextPath() + ProjectMetadataFilter.VERSIONED_PATH_PREFIX
+				+ metadata.getVersion();
+		PrecompressedContent page = this.pages.get(metadataPath);
+		if (page == null) {
+			page = new PrecompressedContent(CONTENT_TYPE,
+					indexPage.render(metadataPath, metadata.getContent()).getBytes(StandardCharsets.UTF_8));
+			if (this.pages.size() < MAX_ENTRIES) {
+				this.pages.putIfAbsent(metadataPath, page);
+			}
+		}
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		page.writeTo(request, response);
+	}
+
+	private IndexPage getIndexPage() throws IOException {
+		IndexPage indexPage = this.indexPage;
+		if (indexPage == null && this.index.exists()) {
+			try (InputStream in = this.index.getInputStream()) {
+				indexPage = new IndexPage(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+			}
+			this.indexPage = indexPage;
+		}
+		return indexPage;
+	}
+
+	/**
+	 * The content of the index page, split where the metadata elements are inserted.
+	 */
+	private static final class IndexPage {
+
+		private final String head;
+
+		private final String tail;
+
+		IndexPage(String content) {
+			int headEnd = content.indexOf(HEAD_END);
+			this.head = (headEnd != -1) ? content.substring(0, headEnd) : null;
+			this.tail = (headEnd != -1) ? content.substring(headEnd) : content;
+		}
+
+		String render(String metadataPath, byte[] metadata) {
+			if (this.head == null) {
+				return this.tail;
+			}
+			// JSON only has '<' in strings where it can be escaped, so that the content
+			// cannot close the script element
+			String json = new String(metadata, StandardCharsets.UTF_8).replace("<", "\\u003c");
+			return this.head + "<meta name=\"initializr-metadata\" content=\"" + metadataPath + "\">"
+					+ "<script id=\"initializr-metadata-content\" type=\"application/json\">" + json + "</script>"
+					+ this.tail;
+		}
+
 	}
 
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * A response body that is computed once, along with a gzipped variant and a strong
+ * {@code ETag} for each.
+ *
+ * @author Stephane Nicoll
+ */
+final class PrecompressedContent {
+
+	private final String contentType;
+
+	private final byte[] content;
+
+	private final String eTag;
+
+	private final byte[] gzipContent;
+
+	private final String gzipETag;
+
+	PrecompressedContent(String contentType, byte[] content) {
+		this.contentType = contentType;
+		this.content = content;
+		this.eTag = createETag(content);
+		this.gzipContent = gzip(content);
+		this.gzipETag = createETag(this.gzipContent);
+	}
+
+	/**
+	 * Return the uncompressed content.
+	 * @return the content
+	 */
+	byte[] getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Write the content to the specified response, compressed if the request accepts it.
+	 * Requests with a matching {@code If-None-Match} header get a
+	 * {@code 304 Not Modified} response. Other headers, such as {@code Cache-Control},
+	 * should be set beforehand.
+	 * @param request the request
+	 * @param response the response
+	 * @throws IOException if the content could not be written
+	 */
+	void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		boolean gzip = acceptsGzip(request);
+		if (new ServletWebRequest(request, response).checkNotModified(gzip ? this.gzipETag : this.eTag)) {
+			return;
+		}
+		byte[] body = gzip ? this.gzipContent : this.content;
+		response.setContentType(this.contentType);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	/**
+	 * Specify if the request accepts a gzip response. A coding with a quality value of
+	 * {@code 0} is not acceptable and an explicit {@code gzip} coding takes precedence
+	 * over the {@code *} wildcard.
+	 * @param request the request
+	 * @return {@code true} if the content can be compressed
+	 */
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		boolean wildcard = false;
+		for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+			String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+			if (parts.length == 0) {
+				continue;
+			}
+			String name = parts[0];
+			if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+				return isAcceptable(parts);
+			}
+			if (name.equals("*")) {
+				wildcard = isAcceptable(parts);
+			}
+		}
+		return wildcard;
+	}
+
+	private static boolean isAcceptable(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String[] parameter = StringUtils.tokenizeToStringArray(parts[i], "=");
+			if (parameter.length == 2 && parameter[0].equalsIgnoreCase("q")) {
+				try {
+					return Double.parseDouble(parameter[1]) > 0;
+				}
+				catch (NumberFormatException ex) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static String createETag(byte[] content) {
+		return DigestUtils.appendMd5DigestAsHex(content, new StringBuilder("\"")).append('"').toString();
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to compress content", ex);
+		}
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+
+/**
+ * Compressed zip entries for the files that are identical in many generated projects,
+ * such as the Maven and Gradle wrappers. Such a file is only compressed the first time it
+ * is written, subsequent archives copy its compressed bytes as is. Files that are already
+ * compressed, such as the wrapper jars, are stored rather than deflated.
+ * <p>
+ * Files are matched by name and entries are only reused for the exact same content. The
+ * least recently used entries are evicted so that an updated file replaces the previous
+ * variant of its content.
+ *
+ * @author Stephane Nicoll
+ */
+class PrecompressedEntries {
+
+	private static final Set<String> FILE_NAMES;
+
+	static {
+		Set<String> fileNames = new HashSet<>();
+		fileNames.add(".gitignore");
+		fileNames.add("mvnw");
+		fileNames.add("mvnw.cmd");
+		fileNames.add("maven-wrapper.jar");
+		fileNames.add("maven-wrapper.properties");
+		fileNames.add("MavenWrapperDownloader.java");
+		fileNames.add("gradlew");
+		fileNames.add("gradlew.bat");
+		fileNames.add("gradle-wrapper.jar");
+		fileNames.add("gradle-wrapper.properties");
+		FILE_NAMES = Collections.unmodifiableSet(fileNames);
+	}
+
+	private static final int MAX_ENTRIES = 64;
+
+	private final Map<String, Entry> entries;
+
+	PrecompressedEntries() {
+		this(MAX_ENTRIES);
+	}
+
+	PrecompressedEntries(int maxEntries) {
+		this.entries = Collections
+				.synchronizedMap(new LinkedHashMap<String, PrecompressedEntries.Entry>(16, 0.75f, true) {
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, PrecompressedEntries.Entry> eldest) {
+						return size() > maxEntries;
+					}
+
+				});
+	}
+
+	/**
+	 * Return the compressed entry for the specified file, or {@code null} if the file
+	 * differs from one project to another.
+	 * @param name the name of the file
+	 * @param content the content of the file
+	 * @return the compressed entry or {@code null}
+	 */
+	Entry get(String name, byte[] content) {
+		String fileName = name.substring(name.lastIndexOf('/') + 1);
+		if (!FILE_NAMES.contains(fileName)) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		String key = fileName + ":" + content.length + ":" + crc.getValue();
+		Entry entry = this.entries.get(key);
+		if (entry != null && Arrays.equals(entry.content, content)) {
+			return entry;
+		}
+		entry = fileName.endsWith(".jar") ? new Entry(content, crc.getValue(), ZipEntry.STORED, content)
+				: new Entry(content, crc.getValue(), ZipEntry.DEFLATED, deflate(content));
+		this.entries.put(key, entry);
+		return entry;
+	}
+
+	private static byte[] deflate(byte[] content) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 16);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * The compressed content of a file, as written in a zip archive.
+	 */
+	static final class Entry {
+
+		private final byte[] content;
+
+		private final long crc;
+
+		private final int method;
+
+		private final byte[] rawContent;
+
+		private Entry(byte[] content, long crc, int method, byte[] rawContent) {
+			this.content = content;
+			this.crc = crc;
+			this.method = method;
+			this.rawContent = rawContent;
+		}
+
+		/**
+		 * Return the content of the entry as it should be written in the archive.
+		 * @return the raw content
+		 */
+		byte[] getRawContent() {
+			return this.rawContent;
+		}
+
+		/**
+		 * Describe the content of this entry on the specified {@link ZipArchiveEntry}.
+		 * @param zipEntry the zip entry to configure
+		 */
+		void applyTo(ZipArchiveEntry zipEntry) {
+			zipEntry.setMethod(this.method);
+			zipEntry.setCrc(this.crc);
+			zipEntry.setSize(this.content.length);
+			zipEntry.setCompressedSize(this.rawContent.length);
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.InvalidProjectRequestException;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import io.spring.start.site.web.ProjectArchiveGenerator.Format;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * A {@link OncePerRequestFilter} that handles the generation of project archives. The
+ * archive is streamed to the client as it is created, without being written to a
+ * temporary file first.
+ * <p>
+ * Generated archives are cached. An archive is keyed by a hash of the
+ * {@link ProjectDescription} of the request once all {@link ProjectDescriptionCustomizer
+ * customizers} have been applied so that requests that lead to the same project share the
+ * same entry. A cache hit does not invoke the project generation at all. The cache is
+ * cleared whenever the metadata is updated.
+ * <p>
+ * If the project has been generated recently for a preview, the archive is written from
+ * that {@link GeneratedProject} rather than generating the project again.
+ * <p>
+ * Each archive publishes a single {@link ProjectGeneratedEvent}: the generation publishes
+ * it when the project is generated, it is published explicitly when the archive is served
+ * from a cache.
+ * <p>
+ * Requests that cannot be converted to a {@link ProjectDescription} are handled by the
+ * regular endpoints so that the error is reported consistently.
+ *
+ * @author Stephane Nicoll
+ */
+public class ProjectArchiveFilter extends OncePerRequestFilter {
+
+	/**
+	 * The name of the cache holding generated project archives.
+	 */
+	public static final String CACHE_NAME = "initializr.project-archives";
+
+	private static final Map<String, Format> FORMATS;
+
+	static {
+		Map<String, Format> formats = new HashMap<>();
+		formats.put("/starter.zip", Format.ZIP);
+		formats.put("/starter.tgz", Format.TGZ);
+		FORMATS = Collections.unmodifiableMap(formats);
+	}
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final ProjectArchiveGenerator archiveGenerator;
+
+	private final Cache cache;
+
+	private final Cache previewCache;
+
+	private final ProjectRequestResolver requestResolver;
+
+	public ProjectArchiveFilter(InitializrMetadataProvider metadataProvider,
+			ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers,
+			ApplicationEventPublisher eventPublisher, ProjectArchiveGenerator archiveGenerator, Cache cache,
+			Cache previewCache) {
+		this.metadataProvider = metadataProvider;
+		this.eventPublisher = eventPublisher;
+		this.archiveGenerator = archiveGenerator;
+		this.cache = cache;
+		this.previewCache = previewCache;
+		this.requestResolver = new ProjectRequestResolver(descriptionCustomizers);
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.cache.clear();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Format format = FORMATS.get(request.getServletPath());
+		if (!HttpMethod.GET.matches(request.getMethod()) || format == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		InitializrMetadata metadata = this.metadataProvider.get();
+		WebProjectRequest projectRequest;
+		try {
+			projectRequest = this.requestResolver.bind(request, metadata);
+		}
+		catch (InvalidProjectRequestException ex) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+			return;
+		}
+		String projectKey = this.requestResolver.computeKey(projectRequest, metadata);
+		if (projectKey == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String key = format.name() + "-" + projectKey;
+		CachedArchive archive = this.cache.get(key, CachedArchive.class);
+		if (archive != null) {
+			archive.writeTo(response);
+			this.eventPublisher.publishEvent(new ProjectGeneratedEvent(projectRequest, metadata));
+			return;
+		}
+		archive = new CachedArchive(format.getContentType(),
+				"attachment; filename=\"" + getFileName(projectRequest, metadata, format) + "\"");
+		archive.writeHeadersTo(response);
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		TeeOutputStream out = new TeeOutputStream(response.getOutputStream(), content);
+		GeneratedProject preview = this.previewCache.get(projectKey, GeneratedProject.class);
+		if (preview != null) {
+			this.archiveGenerator.write(preview, format, out);
+			this.eventPublisher.publishEvent(new ProjectGeneratedEvent(projectRequest, metadata));
+		}
+		else {
+			this.archiveGenerator.generate(projectRequest, format, out);
+		}
+		this.cache.put(key, archive.withContent(content.toByteArray()));
+	}
+
+	private String getFileName(WebProjectRequest request, InitializrMetadata metadata, Format format)
+			throws UnsupportedEncodingException {
+		String candidate = (StringUtils.hasText(request.getArtifactId()) ? request.getArtifactId()
+				: metadata.getArtifactId().getContent());
+		return URLEncoder.encode(candidate.replaceAll(" ", "_"), "UTF-8") + "." + format.getExtension();
+	}
+
+	/**
+	 * A generated project archive, along with the headers that describe it.
+	 */
+	static final class CachedArchive implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String contentType;
+
+		private final String contentDisposition;
+
+		private final byte[] content;
+
+		CachedArchive(String contentType, String contentDisposition) {
+			this(contentType, contentDisposition, null);
+		}
+
+		private CachedArchive(String contentType, String contentDisposition, byte[] content) {
+			this.contentType = contentType;
+			this.contentDisposition = contentDisposition;
+			this.content = content;
+		}
+
+		CachedArchive withContent(byte[] content) {
+			return new CachedArchive(this.contentType, this.contentDisposition, content);
+		}
+
+		void writeHeadersTo(HttpServletResponse response) {
+			response.setStatus(HttpStatus.OK.value());
+			response.setContentType(this.contentType);
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, this.contentDisposition);
+		}
+
+		void writeTo(HttpServletResponse response) throws IOException {
+			writeHeadersTo(response);
+			response.setContentLength(this.content.length);
+			response.getOutputStream().write(this.content);
+		}
+
+	}
+
+	/**
+	 * An {@link OutputStream} that writes to two streams.
+	 */
+	private static final class TeeOutputStream extends OutputStream {
+
+		private final OutputStream out;
+
+		private final OutputStream branch;
+
+		TeeOutputStream(OutputStream out, OutputStream branch) {
+			this.out = out;
+			this.branch = branch;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.branch.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.branch.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.out.flush();
+			this.branch.flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+import org.springframework.util.StreamUtils;
+
+/**
+ * Generate a project and write it as an archive to an {@link OutputStream}. Contrary to
+ * the default endpoints, the archive is not written to a temporary file first so that it
+ * can be streamed to the client as it is created. A project can also be loaded as a
+ * {@link GeneratedProject} so that it can be written as an archive later on.
+ * <p>
+ * Files that are identical in many projects, such as the build wrappers, are only
+ * compressed once when written to a zip archive, see {@link PrecompressedEntries}.
+ *
+ * @author Stephane Nicoll
+ */
+public class ProjectArchiveGenerator {
+
+	private static final int DIRECTORY_MODE = 040755;
+
+	private static final int EXECUTABLE_MODE = 0100755;
+
+	private static final int FILE_MODE = 0100644;
+
+	private final ProjectGenerationInvoker invoker;
+
+	private final PrecompressedEntries precompressedEntries = new PrecompressedEntries();
+
+	public ProjectArchiveGenerator(ProjectGenerationInvoker invoker) {
+		this.invoker = invoker;
+	}
+
+	/**
+	 * Generate the project defined by the specified {@link ProjectRequest} and write it
+	 * to the specified {@link OutputStream} using the specified {@link Format}. The
+	 * project structure is deleted once the archive has been written. The output stream
+	 * is not closed.
+	 * @param request the project request
+	 * @param format the format of the archive
+	 * @param out the stream to write the archive to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void generate(ProjectRequest request, Format format, OutputStream out) throws IOException {
+		write(generate(request), format, out);
+	}
+
+	/**
+	 * Generate the project defined by the specified {@link ProjectRequest} and load its
+	 * structure in memory. The project structure is deleted once it has been loaded.
+	 * @param request the project request
+	 * @return the generated project
+	 * @throws IOException if the project structure could not be read
+	 */
+	public GeneratedProject generate(ProjectRequest request) throws IOException {
+		ProjectGenerationResult result = this.invoker.invokeProjectStructureGeneration(request);
+		try {
+			return load(result);
+		}
+		finally {
+			this.invoker.cleanTempFiles(result.getRootDirectory());
+		}
+	}
+
+	/**
+	 * Write the specified {@link GeneratedProject} to the specified {@link OutputStream}
+	 * using the specified {@link Format}. The output stream is not closed.
+	 * @param project the generated project
+	 * @param format the format of the archive
+	 * @param out the stream to write the archive to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void write(GeneratedProject project, Format format, OutputStream out) throws IOException {
+		try (ArchiveOutputStream archive = format.createOutputStream(StreamUtils.nonClosing(out))) {
+			for (GeneratedProject.Entry entry : project.getEntries()) {
+				long size = (entry.isDirectory()) ? 0 : entry.getContent().length;
+				format.writeEntry(archive,
+						format.createEntry(entry.getName(), entry.getMode(), size, entry.getLastModified()),
+						entry.getContent(), this.precompressedEntries);
+			}
+		}
+	}
+
+	private GeneratedProject load(ProjectGenerationResult result) throws IOException {
+		Path rootDirectory = result.getRootDirectory();
+		String wrapperScript = getWrapperScript(result.getProjectDescription());
+		List<Path> paths;
+		try (Stream<Path> walk = Files.walk(rootDirectory)) {
+			paths = walk.filter((path) -> !path.equals(rootDirectory)).collect(Collectors.toList());
+		}
+		List<GeneratedProject.Entry> entries = new ArrayList<>(paths.size());
+		for (Path path : paths) {
+			boolean directory = Files.isDirectory(path);
+			String entryName = rootDirectory.relativize(path).toString().replace('\\', '/');
+			if (directory) {
+				entryName = entryName + "/";
+			}
+			int mode = (directory) ? DIRECTORY_MODE : (entryName.equals(wrapperScript) ? EXECUTABLE_MODE : FILE_MODE);
+			entries.add(new GeneratedProject.Entry(entryName, mode, Files.getLastModifiedTime(path).toMillis(),
+					(directory) ? null : Files.readAllBytes(path)));
+		}
+		return new GeneratedProject(entries);
+	}
+
+	private static String getWrapperScript(ResolvedProjectDescription description) {
+		String script = "maven".equals(description.getBuildSystem().id()) ? "mvnw" : "gradlew";
+		return (description.getBaseDirectory() != null) ? description.getBaseDirectory() + "/" + script : script;
+	}
+
+	/**
+	 * The supported archive formats.
+	 */
+	public enum Format {
+
+		/**
+		 * A zip archive.
+		 */
+		ZIP("zip", "application/zip") {
+			@Override
+			ArchiveOutputStream createOutputStream(OutputStream out) {
+				return new ZipArchiveOutputStream(out);
+			}
+
+			@Override
+			ArchiveEntry createEntry(String name, int mode, long size, long lastModified) {
+				ZipArchiveEntry entry = new ZipArchiveEntry(name);
+				entry.setUnixMode(mode);
+				entry.setTime(lastModified);
+				return entry;
+			}
+
+			@Override
+			void writeEntry(ArchiveOutputStream archive, ArchiveEntry entry, byte[] content,
+					PrecompressedEntries precompressedEntries) throws IOException {
+				PrecompressedEntries.Entry precompressed = (content != null)
+						? precompressedEntries.get(entry.getName(), content) : null;
+				if (precompressed == null) {
+					super.writeEntry(archive, entry, content, precompressedEntries);
+					return;
+				}
+				ZipArchiveEntry zipEntry = (ZipArchiveEntry) entry;
+				precompressed.applyTo(zipEntry);
+				((ZipArchiveOutputStream) archive).addRawArchiveEntry(zipEntry,
+						new ByteArrayInputStream(precompressed.getRawContent()));
+			}
+		},
+
+		/**
+		 * A gzip-compressed tar archive.
+		 */
+		TGZ("tar.gz", "application/x-compress") {
+			@Override
+			ArchiveOutputStream createOutputStream(OutputStream out) throws IOException {
+				TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out));
+				tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+				return tar;
+			}
+
+			@Override
+			ArchiveEntry createEntry(String name, int mode, long size, long lastModified) {
+				TarArchiveEntry entry = new TarArchiveEntry(name);
+				entry.setMode(mode);
+				entry.setSize(size);
+				entry.setModTime(lastModified);
+				return entry;
+			}
+		};
+
+		private final String extension;
+
+		private final String contentType;
+
+		Format(String extension, String contentType) {
+			this.extension = extension;
+			this.contentType = contentType;
+		}
+
+		/**
+		 * Return the file extension of an archive using this format.
+		 * @return the file extension
+		 */
+		public String getExtension() {
+			return this.extension;
+		}
+
+		/**
+		 * Return the content type of an archive using this format.
+		 * @return the content type
+		 */
+		public String getContentType() {
+			return this.contentType;
+		}
+
+		abstract ArchiveOutputStream createOutputStream(OutputStream out) throws IOException;
+
+		abstract ArchiveEntry createEntry(String name, int mode, long size, long lastModified);
+
+		/**
+		 * Write the specified entry, using the specified {@link PrecompressedEntries} if
+		 * the format supports it.
+		 * @param archive the archive to write to
+		 * @param entry the entry to write
+		 * @param content the content of the entry or {@code null} for a directory
+		 * @param precompressedEntries the entries that do not need to be compressed again
+		 * @throws IOException if the entry could not be written
+		 */
+		void writeEntry(ArchiveOutputStream archive, ArchiveEntry entry, byte[] content,
+				PrecompressedEntries precompressedEntries) throws IOException {
+			archive.putArchiveEntry(entry);
+			if (content != null) {
+				archive.write(content);
+			}
+			archive.closeArchiveEntry();
+		}
+
+	}
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.mapper.InitializrMetadataJsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV21JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV2JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataVersion;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * A {@link OncePerRequestFilter} that serves the metadata of the service in JSON. The
+ * serialized metadata is computed once per content type and application URL, along with a
+ * gzipped variant and a strong {@code ETag} for each, and written as is until the
+ * metadata is updated. Only the most recently used entries are kept. Requests with a
+ * matching {@code If-None-Match} header get a {@code 304 Not Modified} response.
+ * <p>
+ * Only requests whose preferred media type is one of the JSON formats of the metadata are
+ * handled. Other requests, such as the home page or the command-line help, are handled by
+ * the regular endpoints.
+ * <p>
+ * The metadata is also available at a versioned path that holds a hash of its content,
+ * see {@link #getVersionedPath(HttpServletRequest)}. Such a path always identifies the
+ * same content and is served with an {@code immutable} {@code Cache-Control} when it
+ * matches the current metadata. Query parameters, such as a cache-buster, are ignored.
+ *
+ * @author Stephane Nicoll
+ */
+public class ProjectMetadataFilter extends OncePerRequestFilter {
+
+	/**
+	 * The prefix of the versioned path of the metadata.
+	 */
+	public static final String VERSIONED_PATH_PREFIX = "/metadata/client/";
+
+	private static final MediaType HAL_JSON_CONTENT_TYPE = MediaType.parseMediaType("application/hal+json");
+
+	/**
+	 * Content types of the response, indexed by the acceptable media type.
+	 */
+	private static final Map<MediaType, MediaType> CONTENT_TYPES;
+
+	/**
+	 * Versions of the metadata, indexed by the content type of the response.
+	 */
+	private static final Map<MediaType, InitializrMetadataVersion> VERSIONS;
+
+	static {
+		Map<MediaType, MediaType> contentTypes = new LinkedHashMap<>();
+		contentTypes.put(InitializrMetadataVersion.V2_1.getMediaType(), InitializrMetadataVersion.V2_1.getMediaType());
+		contentTypes.put(InitializrMetadataVersion.V2.getMediaType(), InitializrMetadataVersion.V2.getMediaType());
+		contentTypes.put(MediaType.APPLICATION_JSON, InitializrMetadataVersion.V2_1.getMediaType());
+		contentTypes.put(HAL_JSON_CONTENT_TYPE, HAL_JSON_CONTENT_TYPE);
+		CONTENT_TYPES = Collections.unmodifiableMap(contentTypes);
+		Map<MediaType, InitializrMetadataVersion> versions = new LinkedHashMap<>();
+		versions.put(InitializrMetadataVersion.V2_1.getMediaType(), InitializrMetadataVersion.V2_1);
+		versions.put(InitializrMetadataVersion.V2.getMediaType(), InitializrMetadataVersion.V2);
+		versions.put(HAL_JSON_CONTENT_TYPE, InitializrMetadataVersion.V2_1);
+		VERSIONS = Collections.unmodifiableMap(versions);
+	}
+
+	private static final int MAX_ENTRIES = 32;
+
+	private static final String CACHE_CONTROL = CacheControl.maxAge(2, TimeUnit.HOURS).getHeaderValue();
+
+	private static final String IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic()
+			.getHeaderValue() + ", immutable";
+
+	private static final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final Map<String, PrecomputedMetadata> entries;
+
+	public ProjectMetadataFilter(InitializrMetadataProvider metadataProvider) {
+		this.metadataProvider = metadataProvider;
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<String, PrecomputedMetadata>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PrecomputedMetadata> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+
+		});
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.entries.clear();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!HttpMethod.GET.matches(request.getMethod())) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String version = getRequestedVersion(request);
+		MediaType contentType = getContentType(request);
+		if (contentType == null && version != null) {
+			contentType = InitializrMetadataVersion.V2_1.getMediaType();
+		}
+		if (contentType == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		PrecomputedMetadata entry = getEntry(contentType, request);
+		entry.writeTo(request, response, entry.getVersion().equals(version));
+	}
+
+	/**
+	 * Return the versioned path of the metadata that the home page should use, relative
+	 * to the context path. The path changes whenever the content of the metadata changes.
+	 * @param request the request of the home page
+	 * @return the versioned path of the metadata
+	 */
+	public String getVersionedPath(HttpServletRequest request) {
+		return VERSIONED_PATH_PREFIX + getClientMetadata(request).getVersion();
+	}
+
+	/**
+	 * Return the metadata that the home page should use.
+	 * @param request the request of the home page
+	 * @return the metadata in the format expected by the client
+	 */
+	PrecomputedMetadata getClientMetadata(HttpServletRequest request) {
+		return getEntry(InitializrMetadataVersion.V2_1.getMediaType(), request);
+	}
+
+	private PrecomputedMetadata getEntry(MediaType contentType, HttpServletRequest request) {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		String appUrl = generateAppUrl(request, metadata);
+		String key = contentType + " " + appUrl;
+		PrecomputedMetadata entry = this.entries.get(key);
+		if (entry == null) {
+			entry = PrecomputedMetadata.create(contentType,
+					getJsonMapper(VERSIONS.get(contentType)).write(metadata, appUrl));
+			this.entries.put(key, entry);
+		}
+		return entry;
+	}
+
+	private static String getRequestedVersion(HttpServletRequest request) {
+		String path = urlPathHelper.getPathWithinApplication(request);
+		if (path.startsWith(VERSIONED_PATH_PREFIX) && path.length() > VERSIONED_PATH_PREFIX.length()) {
+			return path.substring(VERSIONED_PATH_PREFIX.length());
+		}
+		return null;
+	}
+
+	/**
+	 * Return the JSON content type to use for the specified request, or {@code null} if
+	 * the request does not prefer one of the JSON formats of the metadata. A plain
+	 * {@code application/json} request is served with the content type of the latest
+	 * version of the metadata.
+	 * @param request the request
+	 * @return the content type or {@code null}
+	 */
+	private MediaType getContentType(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept == null) {
+			return null;
+		}
+		try {
+			List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			if (mediaTypes.isEmpty()) {
+				return null;
+			}
+			MediaType preferred = mediaTypes.get(0);
+			return CONTENT_TYPES.entrySet().stream()
+					.filter((candidate) -> candidate.getKey().equalsTypeAndSubtype(preferred)).map(Map.Entry::getValue)
+					.findFirst().orElse(null);
+		}
+		catch (InvalidMediaTypeException ex) {
+			return null;
+		}
+	}
+
+	private String generateAppUrl(HttpServletRequest request, InitializrMetadata metadata) {
+		ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromServletMapping(request);
+		if (metadata.getConfiguration().getEnv().isForceSsl()) {
+			builder.scheme("https");
+		}
+		return builder.build().toString();
+	}
+
+	private static InitializrMetadataJsonMapper getJsonMapper(InitializrMetadataVersion version) {
+		return (version == InitializrMetadataVersion.V2) ? new InitializrMetadataV2JsonMapper()
+				: new InitializrMetadataV21JsonMapper();
+	}
+
+	/**
+	 * Serialized metadata for a given content type, with its gzipped variant.
+	 */
+	static final class PrecomputedMetadata {
+
+		private final String version;
+
+		private final PrecompressedContent content;
+
+		private PrecomputedMetadata(PrecompressedContent content) {
+			this.version = DigestUtils.md5DigestAsHex(content.getContent());
+			this.content = content;
+		}
+
+		static PrecomputedMetadata create(MediaType contentType, String json) {
+			return new PrecomputedMetadata(
+					new PrecompressedContent(new MediaType(contentType, StandardCharsets.UTF_8).toString(),
+							json.getBytes(StandardCharsets.UTF_8)));
+		}
+
+		/**
+		 * Return the hash of the content of the metadata.
+		 * @return the version
+		 */
+		String getVersion() {
+			return this.version;
+		}
+
+		/**
+		 * Return the serialized metadata, using UTF-8.
+		 * @return the content
+		 */
+		byte[] getContent() {
+			return this.content.getContent();
+		}
+
+		void writeTo(HttpServletRequest request, HttpServletResponse response, boolean immutable) throws IOException {
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+			response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE_CACHE_CONTROL : CACHE_CONTROL);
+			this.content.writeTo(request, response);
+		}
+
+	}
+
+}
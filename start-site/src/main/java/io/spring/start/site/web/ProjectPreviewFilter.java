@@ -0,0 +1,195 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.InvalidProjectRequestException;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * A {@link OncePerRequestFilter} that previews a project without creating an archive.
+ * {@code /starter.preview} accepts the same parameters as {@code /starter.zip} and
+ * returns the id of the project and its files as JSON. The content of a file is available
+ * at {@code /starter.preview/{id}/{path}}.
+ * <p>
+ * Generated projects are kept in a short-lived cache, keyed by the same hash of the
+ * {@link io.spring.initializr.generator.project.ProjectDescription} as the archives, so
+ * that the content of files and a subsequent download of the archive do not generate the
+ * project again. The cache is cleared whenever the metadata is updated.
+ * <p>
+ * A preview counts as a generation, like a download: each preview publishes a single
+ * {@link ProjectGeneratedEvent}, either through the generation itself or, on a cache hit,
+ * explicitly.
+ *
+ * @author Stephane Nicoll
+ */
+public class ProjectPreviewFilter extends OncePerRequestFilter {
+
+	/**
+	 * The name of the cache holding generated projects.
+	 */
+	public static final String CACHE_NAME = "initializr.project-previews";
+
+	/**
+	 * The path of the preview endpoint.
+	 */
+	public static final String PATH = "/starter.preview";
+
+	private static final String CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePrivate()
+			.getHeaderValue();
+
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+	private static final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final ProjectArchiveGenerator archiveGenerator;
+
+	private final Cache cache;
+
+	private final ProjectRequestResolver requestResolver;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public ProjectPreviewFilter(InitializrMetadataProvider metadataProvider,
+			ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers,
+			ApplicationEventPublisher eventPublisher, ProjectArchiveGenerator archiveGenerator, Cache cache) {
+		this.metadataProvider = metadataProvider;
+		this.eventPublisher = eventPublisher;
+		this.archiveGenerator = archiveGenerator;
+		this.cache = cache;
+		this.requestResolver = new ProjectRequestResolver(descriptionCustomizers);
+	}
+
+	@EventListener
+	public void onMetadataUpdated(InitializrMetadataUpdatedEvent event) {
+		this.cache.clear();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String path = urlPathHelper.getPathWithinApplication(request);
+		if (!HttpMethod.GET.matches(request.getMethod()) || !path.startsWith(PATH)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (path.equals(PATH)) {
+			writeProject(request, response);
+		}
+		else if (path.startsWith(PATH + "/")) {
+			writeFile(path.substring(PATH.length() + 1), response);
+		}
+		else {
+			filterChain.doFilter(request, response);
+		}
+	}
+
+	private void writeProject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		WebProjectRequest projectRequest;
+		try {
+			projectRequest = this.requestResolver.bind(request, metadata);
+		}
+		catch (InvalidProjectRequestException ex) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+			return;
+		}
+		String key = this.requestResolver.computeKey(projectRequest, metadata);
+		if (key == null) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid project request");
+			return;
+		}
+		GeneratedProject project = this.cache.get(key, GeneratedProject.class);
+		if (project != null) {
+			this.eventPublisher.publishEvent(new ProjectGeneratedEvent(projectRequest, metadata));
+		}
+		else {
+			project = this.archiveGenerator.generate(projectRequest);
+			this.cache.put(key, project);
+		}
+		List<Map<String, Object>> files = new ArrayList<>();
+		for (GeneratedProject.Entry entry : project.getEntries()) {
+			if (!entry.isDirectory()) {
+				Map<String, Object> file = new LinkedHashMap<>();
+				file.put("path", entry.getName());
+				file.put("size", entry.getContent().length);
+				files.add(file);
+			}
+		}
+		Map<String, Object> content = new LinkedHashMap<>();
+		content.put("id", key);
+		content.put("files", files);
+		byte[] body = this.objectMapper.writeValueAsBytes(content);
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	private void writeFile(String path, HttpServletResponse response) throws IOException {
+		int separator = path.indexOf('/');
+		GeneratedProject project = (separator != -1)
+				? this.cache.get(path.substring(0, separator), GeneratedProject.class) : null;
+		GeneratedProject.Entry file = (project != null) ? project.getFile(path.substring(separator + 1)) : null;
+		if (file == null) {
+			response.sendError(HttpStatus.NOT_FOUND.value());
+			return;
+		}
+		byte[] body = file.getContent();
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(file.getName().endsWith(".jar") ? MediaType.APPLICATION_OCTET_STREAM_VALUE
+				: TEXT_PLAIN_UTF8.toString());
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+
+import javax.servlet.http.HttpServletRequest;
+
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.InvalidProjectRequestException;
+import io.spring.initializr.web.project.ProjectRequestToDescriptionConverter;
+import io.spring.initializr.web.project.WebProjectRequest;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.bind.ServletRequestDataBinder;
+
+/**
+ * Bind a {@link WebProjectRequest} from the parameters of an HTTP request and compute the
+ * key of the project it leads to.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectRequestResolver {
+
+	private final ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers;
+
+	private final ProjectRequestToDescriptionConverter requestConverter = new ProjectRequestToDescriptionConverter();
+
+	ProjectRequestResolver(ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers) {
+		this.descriptionCustomizers = descriptionCustomizers;
+	}
+
+	/**
+	 * Bind a {@link WebProjectRequest} from the parameters of the specified request. As
+	 * for the controller of the library, the headers of the request are available as
+	 * parameters of the project request.
+	 * @param request the HTTP request
+	 * @param metadata the metadata to use
+	 * @return the project request
+	 * @throws InvalidProjectRequestException if dependencies are specified using the
+	 * legacy {@code style} parameter
+	 */
+	WebProjectRequest bind(HttpServletRequest request, InitializrMetadata metadata) {
+		if (request.getParameter("style") != null) {
+			throw new InvalidProjectRequestException("Dependencies must be specified using 'dependencies'");
+		}
+		WebProjectRequest projectRequest = new WebProjectRequest();
+		Enumeration<String> headerNames = request.getHeaderNames();
+		while (headerNames.hasMoreElements()) {
+			String headerName = headerNames.nextElement();
+			projectRequest.getParameters().put(headerName, request.getHeader(headerName));
+		}
+		projectRequest.initialize(metadata);
+		ServletRequestDataBinder binder = new ServletRequestDataBinder(projectRequest);
+		binder.setConversionService(DefaultConversionService.getSharedInstance());
+		binder.bind(request);
+		return projectRequest;
+	}
+
+	/**
+	 * Compute the key of the project for the specified request, or {@code null} if the
+	 * request is invalid. The key is a hash of the {@link ProjectDescription} of the
+	 * request once all {@link ProjectDescriptionCustomizer customizers} have been applied
+	 * so that requests that lead to the same project have the same key.
+	 * @param projectRequest the project request
+	 * @param metadata the metadata to use
+	 * @return the key or {@code null}
+	 */
+	String computeKey(WebProjectRequest projectRequest, InitializrMetadata metadata) {
+		ProjectDescription description;
+		try {
+			description = this.requestConverter.convert(projectRequest, metadata);
+			this.descriptionCustomizers.orderedStream().forEach((customizer) -> customizer.customize(description));
+		}
+		catch (RuntimeException ex) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder();
+		append(key, description.getPlatformVersion());
+		append(key, description.getBuildSystem().id());
+		append(key, description.getBuildSystem().dialect());
+		append(key, description.getLanguage().id());
+		append(key, description.getLanguage().jvmVersion());
+		append(key, description.getPackaging().id());
+		append(key, description.getGroupId());
+		append(key, description.getArtifactId());
+		append(key, description.getVersion());
+		append(key, description.getName());
+		append(key, description.getDescription());
+		append(key, description.getApplicationName());
+		append(key, description.getPackageName());
+		append(key, description.getBaseDirectory());
+		// Dependencies order is kept as it drives the order of the generated build
+		description.getRequestedDependencies().keySet().forEach((id) -> append(key, id));
+		return sha256(key.toString());
+	}
+
+	private static void append(StringBuilder key, Object value) {
+		// Length-prefixed so that the content of a field cannot shift into the next one
+		String content = (value != null) ? value.toString() : "";
+		key.append(content.length()).append(':').append(content);
+	}
+
+	private static String sha256(String value) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * A {@link WebMvcConfigurer} that serves the static assets of the client. The client
+ * build writes gzip and brotli variants of its assets so that the variant that the
+ * request accepts is served as is rather than being compressed on each request.
+ * <p>
+ * Assets whose name holds a hash of their content never change and are served with an
+ * {@code immutable} {@code Cache-Control} for a year. Other assets, such as the service
+ * worker, are served with the default caching rules.
+ *
+ * @author Stephane Nicoll
+ */
+public class StaticResourcesConfigurer implements WebMvcConfigurer {
+
+	/**
+	 * A content hash, as generated by the client build.
+	 */
+	private static final String HASH = "????????????????????";
+
+	private static final String[] HASHED_PATTERNS = { "/*-" + HASH + ".js", "/*." + HASH + ".css" };
+
+	private static final CacheControl IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+
+	private final String[] locations;
+
+	/**
+	 * Create an instance serving the assets of the specified locations.
+	 * @param locations the locations of the assets, each ending with a {@code /}
+	 * @see org.springframework.boot.autoconfigure.web.ResourceProperties#getStaticLocations()
+	 */
+	public StaticResourcesConfigurer(String... locations) {
+		this.locations = locations;
+	}
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+		CacheControl immutable = new ImmutableCacheControl(IMMUTABLE_CACHE_CONTROL);
+		configure(registry.addResourceHandler("/static/**"), "static/").setCacheControl(immutable);
+		configure(registry.addResourceHandler(HASHED_PATTERNS), "").setCacheControl(immutable);
+		configure(registry.addResourceHandler("/**"), "");
+	}
+
+	private ResourceHandlerRegistration configure(ResourceHandlerRegistration registration, String directory) {
+		String[] locations = Arrays.stream(this.locations).map((location) -> location + directory)
+				.toArray(String[]::new);
+		registration.addResourceLocations(locations).resourceChain(true).addResolver(new EncodedResourceResolver());
+		return registration;
+	}
+
+	/**
+	 * A {@link CacheControl} that flags the response as {@code immutable}.
+	 */
+	private static final class ImmutableCacheControl extends CacheControl {
+
+		private final CacheControl delegate;
+
+		ImmutableCacheControl(CacheControl delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String getHeaderValue() {
+			return this.delegate.getHeaderValue() + ", immutable";
+		}
+
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.buildsystem.BuildSystem;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Build generated projects concurrently, with at most one build per available core.
+ * <p>
+ * Gradle builds share a Gradle user home so that artifacts are only downloaded once, and
+ * run in daemons that stay warm across projects. The first Gradle build runs on its own
+ * so that the wrapper and common plugins are downloaded once.
+ * <p>
+ * A Maven local repository is not safe for concurrent writes by several processes, so
+ * each worker slot has its own Maven user home and local repository, reused by the builds
+ * that run in that slot. Maven artifacts are therefore downloaded once per slot, and
+ * Maven builds do not wait for a first build to complete.
+ *
+ * @author Stephane Nicoll
+ */
+final class ProjectBuildHarness {
+
+	private final Path home;
+
+	private final BlockingQueue<Integer> workers;
+
+	private final Object gradleWarmUpLock = new Object();
+
+	private volatile boolean gradleWarm;
+
+	private final Map<String, Duration> buildTimes = new ConcurrentHashMap<>();
+
+	private final Map<String, Path> gradleWrappers = new HashMap<>();
+
+	ProjectBuildHarness() throws IOException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	ProjectBuildHarness(int workers) throws IOException {
+		this.home = Files.createTempDirectory("project-builds");
+		this.workers = new ArrayBlockingQueue<>(workers);
+		for (int i = 0; i < workers; i++) {
+			this.workers.add(i);
+		}
+	}
+
+	/**
+	 * Build the specified project.
+	 * @param name the name of the build, used in the report
+	 * @param buildSystem the build system of the project
+	 * @param project the root directory of the project
+	 * @param output the file to write the output of the build to
+	 * @return the exit code of the build
+	 * @throws IOException if the build could not be started
+	 * @throws InterruptedException if the thread was interrupted waiting for the build
+	 */
+	int build(String name, BuildSystem buildSystem, Path project, Path output)
+			throws IOException, InterruptedException {
+		if (buildSystem.id().equals(GradleBuildSystem.ID)) {
+			recordGradleWrapper(project);
+			if (!this.gradleWarm) {
+				synchronized (this.gradleWarmUpLock) {
+					if (!this.gradleWarm) {
+						int exitCode = run(name, buildSystem, project, output);
+						this.gradleWarm = true;
+						return exitCode;
+					}
+				}
+			}
+		}
+		return run(name, buildSystem, project, output);
+	}
+
+	private int run(String name, BuildSystem buildSystem, Path project, Path output)
+			throws IOException, InterruptedException {
+		Integer worker = this.workers.take();
+		try {
+			ProcessBuilder processBuilder = createProcessBuilder(buildSystem, worker);
+			processBuilder.directory(project.toFile());
+			processBuilder.redirectError(output.toFile());
+			processBuilder.redirectOutput(output.toFile());
+			long start = System.nanoTime();
+			int exitCode = processBuilder.start().waitFor();
+			this.buildTimes.put(name, Duration.ofNanos(System.nanoTime() - start));
+			return exitCode;
+		}
+		finally {
+			this.workers.put(worker);
+		}
+	}
+
+	private ProcessBuilder createProcessBuilder(BuildSystem buildSystem, int worker) {
+		if (buildSystem.id().equals(MavenBuildSystem.ID)) {
+			Path mavenHome = this.home.resolve("maven").resolve("worker-" + worker);
+			ProcessBuilder processBuilder = new ProcessBuilder("./mvnw",
+					"-Dmaven.repo.local=" + mavenHome.resolve("repository").toFile(), "package");
+			processBuilder.environment().put("MAVEN_USER_HOME", mavenHome.toFile().getAbsolutePath());
+			return processBuilder;
+		}
+		if (buildSystem.id().equals(GradleBuildSystem.ID)) {
+			ProcessBuilder processBuilder = new ProcessBuilder("./gradlew", "build");
+			processBuilder.environment().put("GRADLE_USER_HOME", getGradleUserHome());
+			return processBuilder;
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Keep a copy of the Gradle wrapper of the specified project for each Gradle version
+	 * so that the daemons of every version can be stopped once the projects are gone.
+	 * @param project the root directory of a Gradle project
+	 * @throws IOException if the wrapper could not be copied
+	 */
+	private void recordGradleWrapper(Path project) throws IOException {
+		Path wrapperProperties = project.resolve("gradle/wrapper/gradle-wrapper.properties");
+		if (!Files.isRegularFile(wrapperProperties)) {
+			return;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(wrapperProperties)) {
+			properties.load(in);
+		}
+		String distribution = properties.getProperty("distributionUrl", "");
+		synchronized (this.gradleWrappers) {
+			if (this.gradleWrappers.containsKey(distribution)) {
+				return;
+			}
+			Path wrapper = this.home.resolve("gradle-wrappers").resolve(String.valueOf(this.gradleWrappers.size()));
+			Files.createDirectories(wrapper.resolve("gradle/wrapper"));
+			Files.copy(project.resolve("gradlew"), wrapper.resolve("gradlew"), StandardCopyOption.COPY_ATTRIBUTES);
+			try (Stream<Path> files = Files.list(project.resolve("gradle/wrapper"))) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.copy(file, wrapper.resolve("gradle/wrapper").resolve(file.getFileName()));
+				}
+			}
+			this.gradleWrappers.put(distribution, wrapper);
+		}
+	}
+
+	private String getGradleUserHome() {
+		return this.home.resolve("gradle").toFile().getAbsolutePath();
+	}
+
+	/**
+	 * Return a report of the time each build took, slowest first.
+	 * @return the build times report
+	 */
+	String report() {
+		List<Map.Entry<String, Duration>> entries = new ArrayList<>(this.buildTimes.entrySet());
+		entries.sort(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()));
+		StringBuilder report = new StringBuilder("Project builds (" + entries.size() + "):\n");
+		for (Map.Entry<String, Duration> entry : entries) {
+			report.append(String.format("%8d ms  %s%n", entry.getValue().toMillis(), entry.getKey()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Stop the Gradle daemons of every Gradle version that has been used and delete the
+	 * Maven and Gradle homes.
+	 */
+	void close() {
+		synchronized (this.gradleWrappers) {
+			for (Path gradleWrapper : this.gradleWrappers.values()) {
+				stopGradleDaemons(gradleWrapper);
+			}
+		}
+		try {
+			FileSystemUtils.deleteRecursively(this.home);
+		}
+		catch (IOException ex) {
+			// Continue
+		}
+	}
+
+	private void stopGradleDaemons(Path gradleWrapper) {
+		ProcessBuilder processBuilder = new ProcessBuilder("./gradlew", "--stop").directory(gradleWrapper.toFile())
+				.redirectErrorStream(true).redirectOutput(gradleWrapper.resolve("stop.log").toFile());
+		processBuilder.environment().put("GRADLE_USER_HOME", getGradleUserHome());
+		try {
+			processBuilder.start().waitFor();
+		}
+		catch (IOException ex) {
+			// Continue
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -17,13 +17,13 @@
 package io.spring.start.site;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,7 +53,6 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.util.FileSystemUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -68,38 +67,27 @@ import static org.assertj.core.api.Assertions.assertThat;
 @Execution(ExecutionMode.CONCURRENT)
 class ProjectGenerationIntegrationTests {
 
-	private static final Set<Path> mavenHomes = new CopyOnWriteArraySet<>();
-
-	private final ThreadLocal<Path> mavenHome = ThreadLocal.withInitial(() -> {
-		try {
-			Path mavenHome = Files.createTempDirectory("maven-home");
-			ProjectGenerationIntegrationTests.mavenHomes.add(mavenHome);
-			return mavenHome;
-		}
-		catch (IOException ex) {
-			throw new RuntimeException(ex);
-		}
-	});
+	private final ProjectBuildHarness harness;
 
 	private final ProjectGenerationInvoker invoker;
 
 	private final InitializrMetadata metadata;
 
 	ProjectGenerationIntegrationTests(@Autowired ProjectGenerationInvoker invoker,
-			@Autowired InitializrMetadataProvider metadataProvider) {
+			@Autowired InitializrMetadataProvider metadataProvider) throws IOException {
 		this.invoker = invoker;
 		this.metadata = metadataProvider.get();
+		this.harness = new ProjectBuildHarness();
 	}
 
 	@AfterAll
-	static void deleteMavenHomes() {
-		for (Path mavenHome : mavenHomes) {
-			try {
-				FileSystemUtils.deleteRecursively(mavenHome);
-			}
-			catch (IOException ex) {
-				// Continue
-			}
+	void closeHarness() throws IOException {
+		try {
+			Files.write(Files.createDirectories(Paths.get("target")).resolve("project-builds.txt"),
+					this.harness.report().getBytes(StandardCharsets.UTF_8));
+		}
+		finally {
+			this.harness.close();
 		}
 	}
 
@@ -136,27 +124,10 @@ class ProjectGenerationIntegrationTests {
 		request.setApplicationName("DemoApplication");
 		request.setDependencies(Arrays.asList("devtools", "configuration-processor"));
 		Path project = this.invoker.invokeProjectStructureGeneration(request).getRootDirectory();
-		ProcessBuilder processBuilder = createProcessBuilder(buildSystem);
-		processBuilder.directory(project.toFile());
 		Path output = Files.createTempFile(directory, "output-", ".log");
-		processBuilder.redirectError(output.toFile());
-		processBuilder.redirectOutput(output.toFile());
-		assertThat(processBuilder.start().waitFor()).describedAs(String.join("\n", Files.readAllLines(output)))
-				.isEqualTo(0);
-	}
-
-	private ProcessBuilder createProcessBuilder(BuildSystem buildSystem) {
-		if (buildSystem.id().equals(new MavenBuildSystem().id())) {
-			Path mavenHome = this.mavenHome.get();
-			ProcessBuilder processBuilder = new ProcessBuilder("./mvnw",
-					"-Dmaven.repo.local=" + mavenHome.resolve("repository").toFile(), "package");
-			processBuilder.environment().put("MAVEN_USER_HOME", mavenHome.toFile().getAbsolutePath());
-			return processBuilder;
-		}
-		if (buildSystem.id().equals(new GradleBuildSystem().id())) {
-			return new ProcessBuilder("./gradlew", "--no-daemon", "build");
-		}
-		throw new IllegalStateException();
+		String name = bootVersion + " " + packaging.id() + " " + language.id() + " " + buildSystem.id();
+		assertThat(this.harness.build(name, buildSystem, project, output))
+				.describedAs(String.join("\n", Files.readAllLines(output))).isEqualTo(0);
 	}
 
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.extension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.spring.initializr.generator.buildsystem.DependencyScope;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataBuilder;
+import io.spring.initializr.metadata.InitializrProperties;
+import io.spring.initializr.metadata.support.MetadataBuildItemResolver;
+import io.spring.start.site.StartProperties;
+import io.spring.start.site.StartProperties.BuildRule;
+import io.spring.start.site.support.BillOfMaterialsIndex;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BuildRules}.
+ *
+ * @author Stephane Nicoll
+ */
+class BuildRulesTests {
+
+	private static final Version VERSION_2_1_0 = Version.parse("2.1.0.RELEASE");
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "a", "b", "c", "x").build();
+
+	@Test
+	void ruleWithAllOfMatchesIfAllDependenciesArePresent() {
+		BuildRules rules = BuildRules.compile(Collections.singletonList(rule(Arrays.asList("a", "b"), null, "x")),
+				this.metadata);
+		assertThat(apply(rules, "a").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "b").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "a", "b").dependencies().has("x")).isTrue();
+		assertThat(apply(rules, "a", "b", "c").dependencies().has("x")).isTrue();
+	}
+
+	@Test
+	void ruleWithAnyOfMatchesIfOneDependencyIsPresent() {
+		BuildRules rules = BuildRules.compile(Collections.singletonList(rule(null, Arrays.asList("a", "b"), "x")),
+				this.metadata);
+		assertThat(apply(rules).dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "c").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "a").dependencies().has("x")).isTrue();
+		assertThat(apply(rules, "b").dependencies().has("x")).isTrue();
+	}
+
+	@Test
+	void ruleWithAllOfAndAnyOf() {
+		BuildRules rules = BuildRules.compile(
+				Collections.singletonList(rule(Collections.singletonList("a"), Arrays.asList("b", "c"), "x")),
+				this.metadata);
+		assertThat(apply(rules, "a").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "b", "c").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, "a", "c").dependencies().has("x")).isTrue();
+	}
+
+	@Test
+	void ruleWithPlatformVersion() {
+		BuildRule rule = rule(Collections.singletonList("a"), null, "x");
+		rule.setPlatformVersion("[2.0.0.RELEASE,2.1.0.M1)");
+		BuildRules rules = BuildRules.compile(Collections.singletonList(rule), this.metadata);
+		assertThat(apply(rules, Version.parse("2.0.5.RELEASE"), "a").dependencies().has("x")).isTrue();
+		assertThat(apply(rules, VERSION_2_1_0, "a").dependencies().has("x")).isFalse();
+		assertThat(apply(rules, (Version) null, "a").dependencies().has("x")).isFalse();
+	}
+
+	@Test
+	void ruleAddsDependencyWithScope() {
+		BuildRule rule = rule(Collections.singletonList("a"), null, "x");
+		rule.getAdd().get(0).setScope(DependencyScope.TEST_COMPILE);
+		MavenBuild build = apply(BuildRules.compile(Collections.singletonList(rule), this.metadata), "a");
+		io.spring.initializr.generator.buildsystem.Dependency dependency = build.dependencies().get("x");
+		assertThat(dependency.getGroupId()).isEqualTo("com.example");
+		assertThat(dependency.getArtifactId()).isEqualTo("x");
+		assertThat(dependency.getScope()).isEqualTo(DependencyScope.TEST_COMPILE);
+	}
+
+	@Test
+	void rulesAreMatchedAgainstDependenciesBeforeAnyRuleIsApplied() {
+		BuildRule first = rule(Collections.singletonList("a"), null, "x");
+		first.getRemove().add("a");
+		BuildRule second = rule(Collections.singletonList("a"), null, "y");
+		BuildRule third = rule(Collections.singletonList("x"), null, "z");
+		MavenBuild build = apply(BuildRules.compile(Arrays.asList(first, second, third), this.metadata), "a");
+		assertThat(build.dependencies().ids()).containsOnly("x", "y");
+	}
+
+	@Test
+	void ruleWithManyDependencies() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			ids.add("dep-" + i);
+		}
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", ids.toArray(new String[0])).build();
+		BuildRules rules = BuildRules.compile(Arrays.asList(rule(null, ids.subList(0, 100), "x"),
+				rule(Arrays.asList("dep-63", "dep-64", "dep-149"), null, "y")), metadata);
+		MavenBuild build = apply(rules, "dep-64", "dep-149");
+		assertThat(build.dependencies().has("x")).isTrue();
+		assertThat(build.dependencies().has("y")).isFalse();
+		build = apply(rules, "dep-149", "dep-63", "dep-64");
+		assertThat(build.dependencies().has("x")).isTrue();
+		assertThat(build.dependencies().has("y")).isTrue();
+		build = apply(rules, "dep-120");
+		assertThat(build.dependencies().has("x")).isFalse();
+	}
+
+	@Test
+	void removeKeepsBomOfMetadataDependency() {
+		Dependency function = Dependency.withId("a", "com.example", "a");
+		function.setBom("example-bom");
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", function, Dependency.withId("b", "com.example", "b"))
+				.addBom("example-bom", BillOfMaterials.create("com.example", "example-bom", "1.0.0")).build();
+		BuildRule rule = rule(Arrays.asList("a", "b"), null, "x");
+		rule.getRemove().add("a");
+		MavenBuild build = new MavenBuild(new MetadataBuildItemResolver(metadata, VERSION_2_1_0));
+		build.dependencies().add("a");
+		build.dependencies().add("b", "com.example", "b", DependencyScope.COMPILE);
+		BuildRules.compile(Collections.singletonList(rule), metadata).apply(build, VERSION_2_1_0, metadata,
+				new BillOfMaterialsIndex(() -> metadata));
+		assertThat(build.dependencies().ids()).containsOnly("b", "x");
+		assertThat(build.boms().has("example-bom")).isTrue();
+	}
+
+	@Test
+	void ruleWithUnknownDependencyFailsToCompile() {
+		BuildRule rule = rule(Collections.singletonList("a"), Arrays.asList("b", "unknown"), "x");
+		rule.getRemove().add("another");
+		assertThatIllegalStateException()
+				.isThrownBy(() -> BuildRules.compile(Collections.singletonList(rule), this.metadata))
+				.withMessageContaining("[unknown, another]");
+	}
+
+	@Test
+	void rulesOfTheSiteReferToKnownDependencies() throws IOException {
+		Binder binder = new Binder(ConfigurationPropertySources
+				.from(new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))));
+		StartProperties properties = binder.bind("start", StartProperties.class).get();
+		InitializrMetadata metadata = InitializrMetadataBuilder
+				.fromInitializrProperties(binder.bind("initializr", InitializrProperties.class).get()).build();
+		assertThat(properties.getBuildRules()).isNotEmpty();
+		BuildRules rules = BuildRules.compile(properties.getBuildRules(), metadata);
+		MavenBuild build = new MavenBuild(new MetadataBuildItemResolver(metadata, VERSION_2_1_0));
+		build.dependencies().add("kafka");
+		rules.apply(build, VERSION_2_1_0, metadata, new BillOfMaterialsIndex(() -> metadata));
+		assertThat(build.dependencies().has("spring-kafka-test")).isTrue();
+	}
+
+	private MavenBuild apply(BuildRules rules, String... dependencies) {
+		return apply(rules, VERSION_2_1_0, dependencies);
+	}
+
+	private MavenBuild apply(BuildRules rules, Version platformVersion, String... dependencies) {
+		MavenBuild build = createBuild(dependencies);
+		rules.apply(build, platformVersion, this.metadata, new BillOfMaterialsIndex(() -> this.metadata));
+		return build;
+	}
+
+	private static MavenBuild createBuild(String... dependencies) {
+		MavenBuild build = new MavenBuild();
+		for (String id : dependencies) {
+			build.dependencies().add(id, "com.example", id, DependencyScope.COMPILE);
+		}
+		return build;
+	}
+
+	private static BuildRule rule(List<String> allOf, List<String> anyOf, String add) {
+		BuildRule rule = new BuildRule();
+		if (allOf != null) {
+			rule.setAllOf(new ArrayList<>(allOf));
+		}
+		if (anyOf != null) {
+			rule.setAnyOf(new ArrayList<>(anyOf));
+		}
+		BuildRule.Dependency dependency = new BuildRule.Dependency();
+		dependency.setId(add);
+		dependency.setGroupId("com.example");
+		dependency.setArtifactId(add);
+		rule.getAdd().add(dependency);
+		return rule;
+	}
+
+}
@@ -21,12 +21,12 @@ import io.spring.initializr.web.project.ProjectRequest;
 import org.junit.jupiter.api.Test;
 
 /**
- * Tests for {@link SpringKafkaBuildCustomizer}.
+ * Tests for the {@link BuildRules build rules} of Spring for Apache Kafka.
  *
  * @author Wonwoo Lee
  * @author Stephane Nicoll
  */
-class SpringKafkaBuildCustomizerTests extends AbstractExtensionTests {
+class SpringKafkaBuildRulesTests extends AbstractExtensionTests {
 
 	@Test
 	void springKafkaTestIsAdded() {
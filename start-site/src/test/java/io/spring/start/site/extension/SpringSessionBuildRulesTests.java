@@ -21,11 +21,11 @@ import io.spring.initializr.web.project.ProjectRequest;
 import org.junit.jupiter.api.Test;
 
 /**
- * Tests for {@link SpringSessionBuildCustomizer}.
+ * Tests for the {@link BuildRules build rules} of Spring Session.
  *
  * @author Stephane Nicoll
  */
-class SpringSessionBuildCustomizerTests extends AbstractExtensionTests {
+class SpringSessionBuildRulesTests extends AbstractExtensionTests {
 
 	private static final Dependency REDIS = Dependency.withId("session-data-redis", "org.springframework.session",
 			"spring-session-data-redis");
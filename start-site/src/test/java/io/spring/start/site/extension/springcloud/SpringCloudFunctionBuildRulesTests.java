@@ -20,15 +20,16 @@ import io.spring.initializr.metadata.BillOfMaterials;
 import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.web.project.ProjectRequest;
 import io.spring.start.site.extension.AbstractExtensionTests;
+import io.spring.start.site.extension.BuildRules;
 import org.junit.jupiter.api.Test;
 
 /**
- * Tests for {@link SpringCloudFunctionBuildCustomizer}.
+ * Tests for the {@link BuildRules build rules} of Spring Cloud Function.
  *
  * @author Dave Syer
  * @author Stephane Nicoll
  */
-class SpringCloudFunctionBuildCustomizerTests extends AbstractExtensionTests {
+class SpringCloudFunctionBuildRulesTests extends AbstractExtensionTests {
 
 	static final Dependency SCS_ADAPTER = Dependency.withId("cloud-function-stream", "org.springframework.cloud",
 			"spring-cloud-function-stream");
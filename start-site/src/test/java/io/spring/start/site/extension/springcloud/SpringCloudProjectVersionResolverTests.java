@@ -23,6 +23,7 @@ import io.spring.initializr.generator.version.VersionParser;
 import io.spring.initializr.metadata.BillOfMaterials;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import io.spring.start.site.support.BillOfMaterialsIndex;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -42,8 +43,8 @@ class SpringCloudProjectVersionResolverTests {
 	void resolveWithNoSpringCloudBom() {
 		BillOfMaterials bom = BillOfMaterials.create("com.example", "custom-bom", "1.0.0");
 		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().addBom("custom-bom", bom).build();
-		String version = new SpringCloudProjectVersionResolver(metadata, this.versionResolver)
-				.resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"), "com.example:test");
+		String version = new SpringCloudProjectVersionResolver(new BillOfMaterialsIndex(() -> metadata),
+				this.versionResolver).resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"), "com.example:test");
 		assertThat(version).isNull();
 	}
 
@@ -53,8 +54,9 @@ class SpringCloudProjectVersionResolverTests {
 		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().addBom("spring-cloud", bom).build();
 		given(this.versionResolver.resolve("org.springframework.cloud", "spring-cloud-dependencies", "1.0.0"))
 				.willReturn(Collections.singletonMap("org.springframework.cloud:spring-cloud", "1.1.0"));
-		String version = new SpringCloudProjectVersionResolver(metadata, this.versionResolver)
-				.resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"), "org.springframework.cloud:test");
+		String version = new SpringCloudProjectVersionResolver(new BillOfMaterialsIndex(() -> metadata),
+				this.versionResolver).resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"),
+						"org.springframework.cloud:test");
 		assertThat(version).isNull();
 	}
 
@@ -64,8 +66,9 @@ class SpringCloudProjectVersionResolverTests {
 		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().addBom("spring-cloud", bom).build();
 		given(this.versionResolver.resolve("org.springframework.cloud", "spring-cloud-dependencies", "1.0.0"))
 				.willReturn(Collections.singletonMap("org.springframework.cloud:spring-cloud", "1.1.0"));
-		String version = new SpringCloudProjectVersionResolver(metadata, this.versionResolver)
-				.resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"), "org.springframework.cloud:spring-cloud");
+		String version = new SpringCloudProjectVersionResolver(new BillOfMaterialsIndex(() -> metadata),
+				this.versionResolver).resolveVersion(VersionParser.DEFAULT.parse("2.1.0.RELEASE"),
+						"org.springframework.cloud:spring-cloud");
 		assertThat(version).isEqualTo("1.1.0");
 	}
 
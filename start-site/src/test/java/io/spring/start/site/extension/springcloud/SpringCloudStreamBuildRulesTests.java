@@ -19,14 +19,15 @@ package io.spring.start.site.extension.springcloud;
 import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.web.project.ProjectRequest;
 import io.spring.start.site.extension.AbstractExtensionTests;
+import io.spring.start.site.extension.BuildRules;
 import org.junit.jupiter.api.Test;
 
 /**
- * Tests for {@link SpringCloudStreamBuildCustomizer}.
+ * Tests for the {@link BuildRules build rules} of Spring Cloud Stream.
  *
  * @author Stephane Nicoll
  */
-class SpringCloudStreamBuildCustomizerTests extends AbstractExtensionTests {
+class SpringCloudStreamBuildRulesTests extends AbstractExtensionTests {
 
 	private static final Dependency KAFKA_BINDER = Dependency.withId("cloud-stream-binder-kafka",
 			"org.springframework.cloud", "spring-cloud-stream-binder-kafka");
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.BillOfMaterials.Mapping;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BillOfMaterialsIndex}.
+ *
+ * @author Stephane Nicoll
+ */
+class BillOfMaterialsIndexTests {
+
+	private static final String[] VERSIONS = { "2.0.0.RELEASE", "2.0.5.RELEASE", "2.1.0.M1", "2.1.0.RELEASE",
+			"2.1.4.RELEASE", "2.1.9.BUILD-SNAPSHOT", "2.2.0.M1", "2.2.0.RELEASE", "2.2.0.BUILD-SNAPSHOT", "2.3.0.M1",
+			"3.0.0.RELEASE" };
+
+	@Test
+	void resolveMatchesLinearResolution() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom");
+		bom.getMappings().add(Mapping.create("[2.0.0.RELEASE,2.1.0.M1)", "1.0.0"));
+		bom.getMappings().add(Mapping.create("[2.1.0.M1,2.1.4.RELEASE]", "1.1.0"));
+		bom.getMappings().add(Mapping.create("(2.1.4.RELEASE,2.2.0.M1)", "1.2.0"));
+		bom.getMappings().add(Mapping.create("[2.1.0.RELEASE,2.3.0.M1)", "1.3.0"));
+		bom.getMappings().add(Mapping.create("2.3.0.M1", "2.0.0"));
+		BillOfMaterialsIndex index = createIndex(createMetadata(bom));
+		for (String candidate : VERSIONS) {
+			Version version = Version.parse(candidate);
+			assertThat(index.resolve("example", version).getVersion()).as(candidate)
+					.isEqualTo(bom.resolve(version).getVersion());
+		}
+	}
+
+	@Test
+	void resolveWithNoMatchingMapping() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom");
+		bom.getMappings().add(Mapping.create("[2.0.0.RELEASE,2.1.0.M1)", "1.0.0"));
+		BillOfMaterialsIndex index = createIndex(createMetadata(bom));
+		assertThatIllegalStateException().isThrownBy(() -> index.resolve("example", Version.parse("1.5.0.RELEASE")))
+				.withMessageContaining("No suitable mapping");
+		assertThatIllegalStateException().isThrownBy(() -> index.resolve("example", Version.parse("2.1.0.RELEASE")))
+				.withMessageContaining("No suitable mapping");
+	}
+
+	@Test
+	void resolveWithExclusiveBounds() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom");
+		bom.getMappings().add(Mapping.create("(2.0.0.RELEASE,2.1.0.RELEASE)", "1.0.0"));
+		bom.getMappings().add(Mapping.create("[2.0.0.RELEASE,2.0.0.RELEASE]", "0.9.0"));
+		bom.getMappings().add(Mapping.create("2.1.0.RELEASE", "1.1.0"));
+		BillOfMaterialsIndex index = createIndex(createMetadata(bom));
+		assertThat(index.resolve("example", Version.parse("2.0.0.RELEASE")).getVersion()).isEqualTo("0.9.0");
+		assertThat(index.resolve("example", Version.parse("2.0.1.RELEASE")).getVersion()).isEqualTo("1.0.0");
+		assertThat(index.resolve("example", Version.parse("2.1.0.RELEASE")).getVersion()).isEqualTo("1.1.0");
+	}
+
+	@Test
+	void resolveReusesResolvedBomOfSameSegment() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom");
+		bom.getMappings().add(Mapping.create("[2.0.0.RELEASE,2.1.0.M1)", "1.0.0"));
+		bom.getMappings().add(Mapping.create("2.1.0.M1", "1.1.0"));
+		BillOfMaterialsIndex index = createIndex(createMetadata(bom));
+		BillOfMaterials first = index.resolve("example", Version.parse("2.0.1.RELEASE"));
+		assertThat(index.resolve("example", Version.parse("2.0.9.RELEASE"))).isSameAs(first);
+		assertThat(index.resolve("example", Version.parse("2.1.0.RELEASE"))).isNotSameAs(first);
+	}
+
+	@Test
+	void resolveWithoutMappingsReturnsBom() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom", "1.0.0");
+		InitializrMetadata metadata = createMetadata(bom);
+		assertThat(createIndex(metadata).resolve("example", Version.parse("2.1.0.RELEASE")))
+				.isSameAs(metadata.getConfiguration().getEnv().getBoms().get("example"));
+	}
+
+	@Test
+	void resolveWithUnknownBomReturnsNull() {
+		BillOfMaterials bom = BillOfMaterials.create("com.example", "example-bom", "1.0.0");
+		assertThat(createIndex(createMetadata(bom)).resolve("another", Version.parse("2.1.0.RELEASE"))).isNull();
+	}
+
+	@Test
+	void indexIsRebuiltWhenMetadataIsUpdated() {
+		BillOfMaterialsIndex index = createIndex(
+				createMetadata(BillOfMaterials.create("com.example", "example-bom", "1.0.0")));
+		assertThat(index.resolve("example", Version.parse("2.1.0.RELEASE")).getVersion()).isEqualTo("1.0.0");
+		InitializrMetadata updated = createMetadata(BillOfMaterials.create("com.example", "example-bom", "2.0.0"));
+		index.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, updated));
+		assertThat(index.resolve("example", Version.parse("2.1.0.RELEASE")).getVersion()).isEqualTo("2.0.0");
+	}
+
+	private static BillOfMaterialsIndex createIndex(InitializrMetadata metadata) {
+		return new BillOfMaterialsIndex(() -> metadata);
+	}
+
+	private static InitializrMetadata createMetadata(BillOfMaterials bom) {
+		return InitializrMetadataTestBuilder.withDefaults().addBom("example", bom).build();
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.Collections;
+
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CacheableDependencyManagementVersionResolver}.
+ *
+ * @author Stephane Nicoll
+ */
+class CacheableDependencyManagementVersionResolverTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(CacheConfiguration.class);
+
+	@Test
+	void resolveSameBomInvokesDelegateOnce() {
+		this.contextRunner.run((context) -> {
+			DependencyManagementVersionResolver delegate = context.getBean("delegate",
+					DependencyManagementVersionResolver.class);
+			given(delegate.resolve("com.example", "example-bom", "1.0.0"))
+					.willReturn(Collections.singletonMap("com.example:test", "1.2.3"));
+			DependencyManagementVersionResolver resolver = context.getBean("resolver",
+					DependencyManagementVersionResolver.class);
+			assertThat(resolver.resolve("com.example", "example-bom", "1.0.0")).containsEntry("com.example:test",
+					"1.2.3");
+			assertThat(resolver.resolve("com.example", "example-bom", "1.0.0")).containsEntry("com.example:test",
+					"1.2.3");
+			verify(delegate, times(1)).resolve("com.example", "example-bom", "1.0.0");
+		});
+	}
+
+	@Test
+	void resolveDifferentBomVersionsInvokesDelegateForEach() {
+		this.contextRunner.run((context) -> {
+			DependencyManagementVersionResolver delegate = context.getBean("delegate",
+					DependencyManagementVersionResolver.class);
+			given(delegate.resolve("com.example", "example-bom", "1.0.0"))
+					.willReturn(Collections.singletonMap("com.example:test", "1.2.3"));
+			given(delegate.resolve("com.example", "example-bom", "2.0.0"))
+					.willReturn(Collections.singletonMap("com.example:test", "2.3.4"));
+			DependencyManagementVersionResolver resolver = context.getBean("resolver",
+					DependencyManagementVersionResolver.class);
+			assertThat(resolver.resolve("com.example", "example-bom", "1.0.0")).containsEntry("com.example:test",
+					"1.2.3");
+			assertThat(resolver.resolve("com.example", "example-bom", "2.0.0")).containsEntry("com.example:test",
+					"2.3.4");
+			verify(delegate, times(1)).resolve("com.example", "example-bom", "1.0.0");
+			verify(delegate, times(1)).resolve("com.example", "example-bom", "2.0.0");
+		});
+	}
+
+	@Configuration
+	@EnableCaching
+	static class CacheConfiguration {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		DependencyManagementVersionResolver delegate() {
+			return mock(DependencyManagementVersionResolver.class);
+		}
+
+		@Bean
+		DependencyManagementVersionResolver resolver() {
+			return new CacheableDependencyManagementVersionResolver(delegate());
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
+import io.spring.initializr.generator.io.text.Section;
+import io.spring.initializr.metadata.Dependency;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CompiledTemplates}.
+ *
+ * @author Stephane Nicoll
+ */
+class CompiledTemplatesTests {
+
+	private static final String LOCATION = "classpath:/templates";
+
+	private final CompiledTemplates templates = CompiledTemplates.compile(LOCATION);
+
+	private final MustacheTemplateRenderer renderer = new MustacheTemplateRenderer(LOCATION);
+
+	@Test
+	void compileDetectsTemplates() {
+		assertThat(this.templates.getNames()).contains("spring-cloud-function-build-setup-aws",
+				"spring-cloud-netflix-maintenance-mode");
+	}
+
+	@Test
+	void writeMatchesRenderer() {
+		Map<String, Object> model = new LinkedHashMap<>();
+		model.put("platform", "AWS Lambda");
+		model.put("buildTool", "gradle");
+		model.put("version", "2.1.0.RELEASE");
+		StringWriter out = new StringWriter();
+		this.templates.write("spring-cloud-function-build-setup-aws", model, out);
+		assertThat(out.toString()).isEqualTo(this.renderer.render("spring-cloud-function-build-setup-aws", model));
+	}
+
+	@Test
+	void sectionWithItemsMatchesRenderer() throws IOException {
+		Dependency zuul = Dependency.withId("cloud-zuul", "com.example", "zuul");
+		zuul.setName("Zuul");
+		Dependency ribbon = Dependency.withId("cloud-ribbon", "com.example", "ribbon");
+		ribbon.setName("Ribbon");
+		Map<String, Object> model = Collections.singletonMap("items", Arrays.asList(zuul, ribbon));
+		Section section = this.templates.section("spring-cloud-netflix-maintenance-mode", model);
+		StringWriter out = new StringWriter();
+		section.write(new PrintWriter(out));
+		String expected = this.renderer.render("spring-cloud-netflix-maintenance-mode", model);
+		assertThat(out.toString()).isEqualTo(expected + System.lineSeparator());
+		assertThat(out.toString()).contains("*  Zuul", "*  Ribbon");
+	}
+
+	@Test
+	void writeWithUnknownTemplate() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.templates.write("does-not-exist", Collections.emptyMap(), new StringWriter()))
+				.withMessageContaining("does-not-exist");
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.start.site.support.DependencyIndex.DependencySet;
+import io.spring.start.site.support.DependencyIndex.Selector;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyIndex}.
+ *
+ * @author Stephane Nicoll
+ */
+class DependencyIndexTests {
+
+	private static final Selector CLOUD_GCP = Selector.ofPrefix("cloud-gcp");
+
+	private static final Selector MESSAGING = Selector.ofIds("amqp", "kafka");
+
+	private final InitializrMetadata metadata = new InitializrMetadataTestBuilder()
+			.addDependencyGroup("core", "web", "security").addDependencyGroup("messaging", "kafka", "amqp")
+			.addDependencyGroup("cloud", "cloud-gcp", "cloud-gcp-storage", "cloud-stream").build();
+
+	@Test
+	void ordinalsFollowMetadataOrder() {
+		DependencyIndex index = new DependencyIndex(() -> this.metadata);
+		assertThat(index.ordinal("web")).isEqualTo(0);
+		assertThat(index.ordinal("amqp")).isEqualTo(3);
+		assertThat(index.ordinal("cloud-stream")).isEqualTo(6);
+		assertThat(index.ordinal("unknown")).isEqualTo(-1);
+	}
+
+	@Test
+	void contains() {
+		DependencySet dependencies = dependencies("web", "kafka", "unknown");
+		assertThat(dependencies.contains("web")).isTrue();
+		assertThat(dependencies.contains("kafka")).isTrue();
+		assertThat(dependencies.contains("security")).isFalse();
+		assertThat(dependencies.contains("unknown")).isFalse();
+	}
+
+	@Test
+	void containsAnyWithPrefix() {
+		assertThat(dependencies("web", "cloud-gcp-storage").containsAny(CLOUD_GCP)).isTrue();
+		assertThat(dependencies("web", "cloud-stream").containsAny(CLOUD_GCP)).isFalse();
+		assertThat(dependencies().containsAny(CLOUD_GCP)).isFalse();
+	}
+
+	@Test
+	void containsAnyWithIds() {
+		assertThat(dependencies("web", "amqp").containsAny(MESSAGING)).isTrue();
+		assertThat(dependencies("web", "cloud-stream").containsAny(MESSAGING)).isFalse();
+	}
+
+	@Test
+	void selectReturnsDependenciesInMetadataOrder() {
+		assertThat(ids(dependencies("amqp", "web", "kafka").select(MESSAGING))).containsExactly("kafka", "amqp");
+		assertThat(dependencies("web").select(MESSAGING)).isEmpty();
+	}
+
+	@Test
+	void selectWithManyDependencies() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			ids.add("dep-" + i);
+		}
+		InitializrMetadata metadata = new InitializrMetadataTestBuilder()
+				.addDependencyGroup("test", ids.toArray(new String[0])).build();
+		DependencySet dependencies = new DependencyIndex(() -> metadata).of(Stream.of("dep-149", "dep-1", "dep-64"));
+		assertThat(ids(dependencies.select(Selector.ofPrefix("dep-")))).containsExactly("dep-1", "dep-64", "dep-149");
+		assertThat(dependencies.containsAny(Selector.ofIds("dep-149"))).isTrue();
+		assertThat(dependencies.containsAny(Selector.ofIds("dep-63", "dep-65"))).isFalse();
+	}
+
+	@Test
+	void indexIsRebuiltWhenMetadataIsUpdated() {
+		DependencyIndex index = new DependencyIndex(() -> this.metadata);
+		assertThat(index.ordinal("amqp")).isEqualTo(3);
+		InitializrMetadata updated = new InitializrMetadataTestBuilder().addDependencyGroup("messaging", "amqp")
+				.build();
+		index.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, updated));
+		assertThat(index.ordinal("amqp")).isEqualTo(0);
+		assertThat(index.ordinal("web")).isEqualTo(-1);
+	}
+
+	private DependencySet dependencies(String... ids) {
+		return new DependencyIndex(() -> this.metadata).of(Stream.of(ids));
+	}
+
+	private static List<String> ids(List<Dependency> dependencies) {
+		return dependencies.stream().map(Dependency::getId).collect(Collectors.toList());
+	}
+
+}
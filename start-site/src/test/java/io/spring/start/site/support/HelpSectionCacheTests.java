@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.spring.initializr.generator.io.text.Section;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HelpSectionCache}.
+ *
+ * @author Stephane Nicoll
+ */
+class HelpSectionCacheTests {
+
+	private final ConcurrentMapCache cache = new ConcurrentMapCache(HelpSectionCache.CACHE_NAME);
+
+	private final HelpSectionCache sectionCache = new HelpSectionCache(this.cache);
+
+	@Test
+	void getRendersSectionsInOrder() throws IOException {
+		Section section = this.sectionCache.get("test",
+				() -> Arrays.asList((writer) -> writer.println("one"), (writer) -> writer.println("two")));
+		assertThat(write(section)).isEqualTo(String.format("one%ntwo%n"));
+	}
+
+	@Test
+	void getWithSameKeyDoesNotRenderAgain() throws IOException {
+		AtomicInteger invocations = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			Section section = this.sectionCache.get("test", () -> {
+				invocations.incrementAndGet();
+				return Collections.singletonList((writer) -> writer.print("content"));
+			});
+			assertThat(write(section)).isEqualTo("content");
+		}
+		assertThat(invocations).hasValue(1);
+	}
+
+	@Test
+	void getWithDifferentKeysRendersEachKey() throws IOException {
+		Section first = this.sectionCache.get("first",
+				() -> Collections.singletonList((writer) -> writer.print("first")));
+		Section second = this.sectionCache.get("second",
+				() -> Collections.singletonList((writer) -> writer.print("second")));
+		assertThat(write(first)).isEqualTo("first");
+		assertThat(write(second)).isEqualTo("second");
+	}
+
+	@Test
+	void getWithNoContentReturnsNull() {
+		assertThat(this.sectionCache.get("test", Collections::emptyList)).isNull();
+		assertThat(this.cache.get("test", String.class)).isEmpty();
+	}
+
+	@Test
+	void getWithUnresolvedSectionsIsNotCached() throws IOException {
+		assertThat(this.sectionCache.get("test", () -> null)).isNull();
+		assertThat(this.cache.get("test")).isNull();
+		Section section = this.sectionCache.get("test",
+				() -> Collections.singletonList((writer) -> writer.print("content")));
+		assertThat(write(section)).isEqualTo("content");
+	}
+
+	@Test
+	void metadataUpdateClearsCache() {
+		this.sectionCache.get("test", () -> Collections.singletonList((writer) -> writer.print("content")));
+		this.sectionCache.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, new InitializrMetadata()));
+		assertThat(this.cache.get("test")).isNull();
+	}
+
+	private String write(Section section) throws IOException {
+		StringWriter out = new StringWriter();
+		section.write(new PrintWriter(out));
+		return out.toString();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link PersistentDependencyManagementVersionResolver}.
+ *
+ * @author Stephane Nicoll
+ */
+class PersistentDependencyManagementVersionResolverTests {
+
+	private final DependencyManagementVersionResolver delegate = mock(DependencyManagementVersionResolver.class);
+
+	@Test
+	void resolveStoresManagedDependencies(@TempDir Path index) {
+		given(this.delegate.resolve("com.example", "example-bom", "1.0.0"))
+				.willReturn(Collections.singletonMap("com.example:test", "1.2.3"));
+		Map<String, String> versions = new PersistentDependencyManagementVersionResolver(this.delegate, index)
+				.resolve("com.example", "example-bom", "1.0.0");
+		assertThat(versions).containsOnly(entry("com.example:test", "1.2.3"));
+		assertThat(index.resolve("com.example/example-bom/1.0.0.properties")).isRegularFile();
+	}
+
+	@Test
+	void resolveUsesStoredManagedDependencies(@TempDir Path index) {
+		given(this.delegate.resolve("com.example", "example-bom", "1.0.0"))
+				.willReturn(Collections.singletonMap("com.example:test", "1.2.3"));
+		new PersistentDependencyManagementVersionResolver(this.delegate, index).resolve("com.example", "example-bom",
+				"1.0.0");
+		DependencyManagementVersionResolver anotherDelegate = mock(DependencyManagementVersionResolver.class);
+		Map<String, String> versions = new PersistentDependencyManagementVersionResolver(anotherDelegate, index)
+				.resolve("com.example", "example-bom", "1.0.0");
+		assertThat(versions).containsOnly(entry("com.example:test", "1.2.3"));
+		verifyZeroInteractions(anotherDelegate);
+	}
+
+	@Test
+	void resolveDoesNotStoreSnapshots(@TempDir Path index) {
+		given(this.delegate.resolve("com.example", "example-bom", "1.0.0-SNAPSHOT"))
+				.willReturn(Collections.singletonMap("com.example:test", "1.2.3-SNAPSHOT"));
+		PersistentDependencyManagementVersionResolver resolver = new PersistentDependencyManagementVersionResolver(
+				this.delegate, index);
+		resolver.resolve("com.example", "example-bom", "1.0.0-SNAPSHOT");
+		resolver.resolve("com.example", "example-bom", "1.0.0-SNAPSHOT");
+		verify(this.delegate, times(2)).resolve("com.example", "example-bom", "1.0.0-SNAPSHOT");
+		assertThat(index.resolve("com.example")).doesNotExist();
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.DefaultMetadataElement;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.support.InitializrMetadataUpdateStrategy;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link StartInitializrMetadataProvider}.
+ *
+ * @author Stephane Nicoll
+ */
+class StartInitializrMetadataProviderTests {
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	@Test
+	void getReturnsCurrentMetadataAndSchedulesRefresh() {
+		StartInitializrMetadataProvider provider = createProvider(updateBootVersions("2.2.0.RELEASE"),
+				Duration.ofMinutes(10));
+		InitializrMetadata initial = provider.get();
+		assertThat(bootVersions(initial)).containsExactly("2.1.0.RELEASE");
+		assertThat(this.tasks).hasSize(1);
+		verify(this.eventPublisher, never()).publishEvent(any());
+		runTasks();
+		InitializrMetadata refreshed = provider.get();
+		assertThat(refreshed).isNotSameAs(initial);
+		assertThat(bootVersions(refreshed)).containsExactly("2.2.0.RELEASE");
+		assertThat(bootVersions(initial)).containsExactly("2.1.0.RELEASE");
+		verify(this.eventPublisher).publishEvent(any(InitializrMetadataUpdatedEvent.class));
+	}
+
+	@Test
+	void getDoesNotScheduleRefreshWhileOneIsInProgress() {
+		StartInitializrMetadataProvider provider = createProvider((current) -> current, Duration.ZERO);
+		provider.get();
+		provider.get();
+		provider.get();
+		assertThat(this.tasks).hasSize(1);
+	}
+
+	@Test
+	void getDoesNotScheduleRefreshBeforeRefreshInterval() {
+		StartInitializrMetadataProvider provider = createProvider((current) -> current, Duration.ofMinutes(10));
+		provider.get();
+		runTasks();
+		provider.get();
+		assertThat(this.tasks).isEmpty();
+	}
+
+	@Test
+	void getSchedulesRefreshAfterRefreshInterval() {
+		StartInitializrMetadataProvider provider = createProvider((current) -> current, Duration.ZERO);
+		provider.get();
+		runTasks();
+		provider.get();
+		assertThat(this.tasks).hasSize(1);
+		runTasks();
+		verify(this.eventPublisher, times(2)).publishEvent(any(InitializrMetadataUpdatedEvent.class));
+	}
+
+	@Test
+	void refreshKeepsLastKnownBootVersionsIfUpdateDoesNotChangeThem() {
+		List<InitializrMetadataUpdateStrategy> strategies = new ArrayList<>();
+		strategies.add(updateBootVersions("2.2.0.RELEASE"));
+		strategies.add((current) -> current);
+		StartInitializrMetadataProvider provider = createProvider((current) -> strategies.remove(0).update(current),
+				Duration.ZERO);
+		provider.get();
+		runTasks();
+		provider.get();
+		runTasks();
+		assertThat(bootVersions(provider.get())).containsExactly("2.2.0.RELEASE");
+	}
+
+	@Test
+	void refreshFailureKeepsCurrentMetadata() {
+		StartInitializrMetadataProvider provider = createProvider((current) -> {
+			throw new IllegalStateException("test");
+		}, Duration.ZERO);
+		InitializrMetadata initial = provider.get();
+		runTasks();
+		assertThat(provider.get()).isSameAs(initial);
+		verify(this.eventPublisher, never()).publishEvent(any());
+		assertThat(this.tasks).hasSize(1);
+	}
+
+	private StartInitializrMetadataProvider createProvider(InitializrMetadataUpdateStrategy updateStrategy,
+			Duration refreshInterval) {
+		Executor executor = this.tasks::add;
+		return new StartInitializrMetadataProvider(
+				() -> new InitializrMetadataTestBuilder().addBootVersion("2.1.0.RELEASE", true).build(), updateStrategy,
+				executor, this.eventPublisher, refreshInterval);
+	}
+
+	private void runTasks() {
+		List<Runnable> tasks = new ArrayList<>(this.tasks);
+		this.tasks.clear();
+		tasks.forEach(Runnable::run);
+	}
+
+	private static InitializrMetadataUpdateStrategy updateBootVersions(String version) {
+		return (current) -> {
+			current.updateSpringBootVersions(Collections.singletonList(DefaultMetadataElement.create(version, true)));
+			return current;
+		};
+	}
+
+	private static List<String> bootVersions(InitializrMetadata metadata) {
+		return metadata.getBootVersions().getContent().stream().map(DefaultMetadataElement::getId)
+				.collect(Collectors.toList());
+	}
+
+}
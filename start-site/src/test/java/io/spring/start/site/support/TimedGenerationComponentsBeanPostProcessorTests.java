@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TimedGenerationComponentsBeanPostProcessor}.
+ *
+ * @author Stephane Nicoll
+ */
+class TimedGenerationComponentsBeanPostProcessorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final InitializrMetadata metadata = new InitializrMetadataTestBuilder()
+			.addBootVersion("2.1.4.RELEASE", true).addBootVersion("2.2.0.M4", false).build();
+
+	@Test
+	void customizerIsTimedWithProjectTags() {
+		TestMavenBuildCustomizer customizer = new TestMavenBuildCustomizer();
+		TestMavenBuildCustomizer proxy = postProcess(customizer, 1.0);
+		proxy.customize(new MavenBuild());
+		assertThat(customizer.invocations).isEqualTo(1);
+		Timer timer = this.registry.get(TimedGenerationComponentsBeanPostProcessor.METRIC_NAME).tags("class",
+				TestMavenBuildCustomizer.class.getName(), "buildSystem", "maven", "bootVersion", "2.1.4.RELEASE")
+				.timer();
+		assertThat(timer.count()).isEqualTo(1);
+	}
+
+	@Test
+	void advertisedBootVersionIsTagged() {
+		assertThat(TimedGenerationComponentsBeanPostProcessor.projectTags(new MavenBuildSystem(),
+				Version.parse("2.2.0.M4"), this.metadata)).contains(Tag.of("bootVersion", "2.2.0.M4"));
+	}
+
+	@Test
+	void unknownBootVersionIsTaggedAsOther() {
+		assertThat(TimedGenerationComponentsBeanPostProcessor.projectTags(new MavenBuildSystem(),
+				Version.parse("2.1.5.RELEASE"), this.metadata)).contains(Tag.of("bootVersion", "other"));
+	}
+
+	@Test
+	void missingBootVersionIsTaggedAsNone() {
+		assertThat(TimedGenerationComponentsBeanPostProcessor.projectTags(null, null, this.metadata))
+				.contains(Tag.of("buildSystem", "none"), Tag.of("bootVersion", "none"));
+	}
+
+	@Test
+	void customizerIsNotTimedIfNotSampled() {
+		TestMavenBuildCustomizer customizer = new TestMavenBuildCustomizer();
+		TestMavenBuildCustomizer proxy = postProcess(customizer, 0.0);
+		proxy.customize(new MavenBuild());
+		assertThat(customizer.invocations).isEqualTo(1);
+		assertThat(this.registry.find(TimedGenerationComponentsBeanPostProcessor.METRIC_NAME).timer()).isNull();
+	}
+
+	@Test
+	void customizerIsNotTimedWithoutRegistry() {
+		TestMavenBuildCustomizer customizer = new TestMavenBuildCustomizer();
+		TestMavenBuildCustomizer proxy = (TestMavenBuildCustomizer) new TimedGenerationComponentsBeanPostProcessor(
+				() -> null, () -> 1.0, (argument) -> Tags.empty()).postProcessAfterInitialization(customizer, "test");
+		proxy.customize(new MavenBuild());
+		assertThat(customizer.invocations).isEqualTo(1);
+	}
+
+	@Test
+	void customizerProxyKeepsGenericType() {
+		TestMavenBuildCustomizer proxy = postProcess(new TestMavenBuildCustomizer(), 1.0);
+		assertThat(ResolvableType.forClass(BuildCustomizer.class, proxy.getClass()).resolveGeneric())
+				.isEqualTo(MavenBuild.class);
+	}
+
+	@Test
+	void otherMethodsAreNotTimed() {
+		TestMavenBuildCustomizer proxy = postProcess(new TestMavenBuildCustomizer(), 1.0);
+		assertThat(proxy.getOrder()).isEqualTo(42);
+		assertThat(this.registry.find(TimedGenerationComponentsBeanPostProcessor.METRIC_NAME).timer()).isNull();
+	}
+
+	@Test
+	void otherBeanIsNotProxied() {
+		Object bean = new Object();
+		assertThat(postProcess(bean, 1.0)).isSameAs(bean);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T postProcess(T bean, double sampleRate) {
+		TimedGenerationComponentsBeanPostProcessor postProcessor = new TimedGenerationComponentsBeanPostProcessor(
+				() -> this.registry, () -> sampleRate, (argument) -> TimedGenerationComponentsBeanPostProcessor
+						.projectTags(new MavenBuildSystem(), Version.parse("2.1.4.RELEASE"), this.metadata));
+		return (T) postProcessor.postProcessAfterInitialization(bean, "test");
+	}
+
+	static class TestMavenBuildCustomizer implements BuildCustomizer<MavenBuild> {
+
+		private int invocations;
+
+		@Override
+		public void customize(MavenBuild build) {
+			this.invocations++;
+		}
+
+		@Override
+		public int getOrder() {
+			return 42;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.versionresolver.DependencyManagementVersionResolver;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Tests for {@link VersionResolutionWarmUp}.
+ *
+ * @author Stephane Nicoll
+ */
+class VersionResolutionWarmUpTests {
+
+	private final InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+
+	private final DependencyManagementVersionResolver versionResolver = mock(DependencyManagementVersionResolver.class);
+
+	@Test
+	void warmUpResolvesSpringBootAndSpringCloudBoms() {
+		InitializrMetadata metadata = createMetadata("2.1.7.RELEASE", "2.2.0.RELEASE");
+		given(this.metadataProvider.get()).willReturn(metadata);
+		createWarmUp().warmUp(metadata);
+		verify(this.versionResolver).resolve("org.springframework.boot", "spring-boot-dependencies", "2.1.7.RELEASE");
+		verify(this.versionResolver).resolve("org.springframework.cloud", "spring-cloud-dependencies", "Greenwich.SR2");
+		verify(this.versionResolver).resolve("org.springframework.boot", "spring-boot-dependencies", "2.2.0.RELEASE");
+		verify(this.versionResolver).resolve("org.springframework.cloud", "spring-cloud-dependencies", "Hoxton.RC1");
+		verifyNoMoreInteractions(this.versionResolver);
+	}
+
+	@Test
+	void warmUpWithoutSpringCloudMappingOnlyResolvesSpringBootBom() {
+		VersionResolutionWarmUp warmUp = createWarmUp();
+		InitializrMetadata metadata = createMetadata("2.0.9.RELEASE");
+		warmUp.warmUp(metadata);
+		warmUp.warmUp(metadata);
+		verify(this.versionResolver).resolve("org.springframework.boot", "spring-boot-dependencies", "2.0.9.RELEASE");
+		verifyNoMoreInteractions(this.versionResolver);
+	}
+
+	@Test
+	void warmUpDoesNotResolveSameVersionTwice() {
+		given(this.metadataProvider.get()).willReturn(createMetadata("2.1.7.RELEASE", "2.2.0.RELEASE"));
+		VersionResolutionWarmUp warmUp = createWarmUp();
+		warmUp.warmUp(createMetadata("2.1.7.RELEASE"));
+		warmUp.warmUp(createMetadata("2.1.7.RELEASE", "2.2.0.RELEASE"));
+		verify(this.versionResolver, times(1)).resolve("org.springframework.boot", "spring-boot-dependencies",
+				"2.1.7.RELEASE");
+		verify(this.versionResolver, times(1)).resolve("org.springframework.boot", "spring-boot-dependencies",
+				"2.2.0.RELEASE");
+	}
+
+	@Test
+	void warmUpAfterFailureResolvesVersionAgain() {
+		given(this.versionResolver.resolve(anyString(), anyString(), anyString()))
+				.willThrow(new IllegalStateException("test"));
+		VersionResolutionWarmUp warmUp = createWarmUp();
+		InitializrMetadata metadata = createMetadata("2.1.7.RELEASE");
+		warmUp.warmUp(metadata);
+		warmUp.warmUp(metadata);
+		verify(this.versionResolver, times(2)).resolve("org.springframework.boot", "spring-boot-dependencies",
+				"2.1.7.RELEASE");
+	}
+
+	@Test
+	void healthIsOutOfServiceUntilStartupWarmUpHasCompleted() {
+		given(this.metadataProvider.get()).willReturn(createMetadata("2.1.7.RELEASE"));
+		VersionResolutionWarmUp warmUp = createWarmUp();
+		assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+		warmUp.onApplicationReady(mock(ApplicationReadyEvent.class));
+		assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+	}
+
+	private VersionResolutionWarmUp createWarmUp() {
+		return new VersionResolutionWarmUp(this.metadataProvider, new BillOfMaterialsIndex(this.metadataProvider),
+				this.versionResolver, Runnable::run);
+	}
+
+	private InitializrMetadata createMetadata(String... bootVersions) {
+		BillOfMaterials bom = BillOfMaterials.create("org.springframework.cloud", "spring-cloud-dependencies");
+		bom.getMappings().add(BillOfMaterials.Mapping.create("[2.1.0.RELEASE,2.2.0.M1)", "Greenwich.SR2"));
+		bom.getMappings().add(BillOfMaterials.Mapping.create("[2.2.0.M1,2.3.0.M1)", "Hoxton.RC1"));
+		InitializrMetadataTestBuilder builder = new InitializrMetadataTestBuilder().addBom("spring-cloud", bom);
+		for (String bootVersion : bootVersions) {
+			builder.addBootVersion(bootVersion, false);
+		}
+		return builder.build();
+	}
+
+}
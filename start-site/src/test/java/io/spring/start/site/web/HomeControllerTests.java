@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link HomeController}.
+ *
+ * @author Stephane Nicoll
+ */
+class HomeControllerTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "web", "actuator").build();
+
+	private final ProjectMetadataFilter metadataFilter = createMetadataFilter(this.metadata);
+
+	@Test
+	void homeAddsVersionedMetadataPath() throws Exception {
+		HomeController controller = new HomeController(
+				index("<html><head><title>Test</title></head><body></body></html>"), this.metadataFilter);
+		MockHttpServletRequest request = createRequest();
+		MockHttpServletResponse response = invoke(controller, request);
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+		assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+		assertThat(response.getContentAsString())
+				.startsWith("<html><head><title>Test</title><meta " + "name=\"initializr-metadata\" content=\""
+						+ this.metadataFilter.getVersionedPath(request) + "\">")
+				.endsWith("</script></head><body></body></html>");
+	}
+
+	@Test
+	void homeInlinesMetadata() throws Exception {
+		HomeController controller = new HomeController(index("<head></head>"), this.metadataFilter);
+		MockHttpServletRequest request = createRequest();
+		String content = invoke(controller, request).getContentAsString();
+		String json = new String(this.metadataFilter.getClientMetadata(request).getContent(), StandardCharsets.UTF_8);
+		assertThat(content)
+				.contains("<script id=\"initializr-metadata-content\" type=\"application/json\">" + json + "</script>");
+	}
+
+	@Test
+	void homeEscapesInlinedMetadata() throws Exception {
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", "web", "actuator").build();
+		metadata.getDependencies().get("web").setDescription("</script><script>alert(1)</script>");
+		HomeController controller = new HomeController(index("<head></head>"), createMetadataFilter(metadata));
+		String content = invoke(controller, createRequest()).getContentAsString();
+		assertThat(content).contains("\\u003c/script>\\u003cscript>alert(1)\\u003c/script>")
+				.containsOnlyOnce("</script>");
+	}
+
+	@Test
+	void homeIsCompressed() throws Exception {
+		HomeController controller = new HomeController(index("<head></head>"), this.metadataFilter);
+		MockHttpServletRequest request = createRequest();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		MockHttpServletResponse response = invoke(controller, request);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8))
+					.isEqualTo(invoke(controller, createRequest()).getContentAsString());
+		}
+	}
+
+	@Test
+	void homeWithMatchingETagIsNotModified() throws Exception {
+		HomeController controller = new HomeController(index("<head></head>"), this.metadataFilter);
+		String eTag = invoke(controller, createRequest()).getHeader(HttpHeaders.ETAG);
+		MockHttpServletRequest request = createRequest();
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		MockHttpServletResponse response = invoke(controller, request);
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void homeIsRenderedAgainWhenMetadataIsUpdated() throws Exception {
+		InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+		given(metadataProvider.get()).willReturn(this.metadata);
+		ProjectMetadataFilter metadataFilter = new ProjectMetadataFilter(metadataProvider);
+		HomeController controller = new HomeController(index("<head></head>"), metadataFilter);
+		String first = invoke(controller, createRequest()).getContentAsString();
+		InitializrMetadata updated = InitializrMetadataTestBuilder.withDefaults().addDependencyGroup("test", "web")
+				.build();
+		given(metadataProvider.get()).willReturn(updated);
+		InitializrMetadataUpdatedEvent event = new InitializrMetadataUpdatedEvent(this, updated);
+		metadataFilter.onMetadataUpdated(event);
+		controller.onMetadataUpdated(event);
+		String second = invoke(controller, createRequest()).getContentAsString();
+		assertThat(second).isNotEqualTo(first).doesNotContain("actuator");
+	}
+
+	@Test
+	void homeUsesContextPath() throws Exception {
+		HomeController controller = new HomeController(index("<head></head>"), this.metadataFilter);
+		MockHttpServletRequest request = createRequest();
+		request.setContextPath("/start");
+		assertThat(invoke(controller, request).getContentAsString()).contains("content=\"/start/metadata/client/");
+	}
+
+	@Test
+	void homeWithoutHeadIsServedAsIs() throws Exception {
+		HomeController controller = new HomeController(index("<p>Test</p>"), this.metadataFilter);
+		assertThat(invoke(controller, createRequest()).getContentAsString()).isEqualTo("<p>Test</p>");
+	}
+
+	@Test
+	void homeWithoutIndexIsNotFound() throws Exception {
+		HomeController controller = new HomeController(new ClassPathResource("does-not-exist.html"),
+				this.metadataFilter);
+		assertThat(invoke(controller, createRequest()).getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+	}
+
+	private static MockHttpServletResponse invoke(HomeController controller, MockHttpServletRequest request)
+			throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.home(request, response);
+		return response;
+	}
+
+	private static Resource index(String content) {
+		return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static MockHttpServletRequest createRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setServletPath("/");
+		return request;
+	}
+
+	private static ProjectMetadataFilter createMetadataFilter(InitializrMetadata metadata) {
+		InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+		given(metadataProvider.get()).willReturn(metadata);
+		return new ProjectMetadataFilter(metadataProvider);
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PrecompressedContent}.
+ *
+ * @author Stephane Nicoll
+ */
+class PrecompressedContentTests {
+
+	private final PrecompressedContent content = new PrecompressedContent("text/plain",
+			"test content".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	void requestWithoutAcceptEncodingIsNotCompressed() throws IOException {
+		assertThat(write(null)).isNull();
+	}
+
+	@Test
+	void requestAcceptingGzipIsCompressed() throws IOException {
+		assertThat(write("gzip, deflate, br")).isEqualTo("gzip");
+	}
+
+	@Test
+	void requestAcceptingGzipWithQualityIsCompressed() throws IOException {
+		assertThat(write("br;q=1.0, GZIP ; q=0.5")).isEqualTo("gzip");
+	}
+
+	@Test
+	void requestRefusingGzipIsNotCompressed() throws IOException {
+		assertThat(write("gzip;q=0, deflate")).isNull();
+		assertThat(write("gzip; q=0.000")).isNull();
+	}
+
+	@Test
+	void requestAcceptingAnyCodingIsCompressed() throws IOException {
+		assertThat(write("*")).isEqualTo("gzip");
+	}
+
+	@Test
+	void requestRefusingGzipExplicitlyWithWildcardIsNotCompressed() throws IOException {
+		assertThat(write("*, gzip;q=0")).isNull();
+		assertThat(write("*;q=0, br")).isNull();
+	}
+
+	@Test
+	void requestAcceptingOtherCodingIsNotCompressed() throws IOException {
+		assertThat(write("deflate, br")).isNull();
+		assertThat(write("gzipped")).isNull();
+	}
+
+	private String write(String acceptEncoding) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.content.writeTo(request, response);
+		String contentEncoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+		if (contentEncoding == null) {
+			assertThat(response.getContentAsString()).isEqualTo("test content");
+		}
+		return contentEncoding;
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PrecompressedEntries}.
+ *
+ * @author Stephane Nicoll
+ */
+class PrecompressedEntriesTests {
+
+	private final PrecompressedEntries entries = new PrecompressedEntries();
+
+	@Test
+	void projectSpecificFileIsNotPrecompressed() {
+		assertThat(this.entries.get("demo/pom.xml", bytes("<project/>"))).isNull();
+	}
+
+	@Test
+	void wrapperScriptIsDeflated() throws Exception {
+		byte[] content = bytes("#!/bin/sh\necho test\necho test\necho test\n");
+		PrecompressedEntries.Entry entry = this.entries.get("demo/mvnw", content);
+		ZipArchiveEntry zipEntry = new ZipArchiveEntry("demo/mvnw");
+		entry.applyTo(zipEntry);
+		assertThat(zipEntry.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+		assertThat(zipEntry.getSize()).isEqualTo(content.length);
+		assertThat(zipEntry.getCompressedSize()).isEqualTo(entry.getRawContent().length);
+		assertThat(zipEntry.getCrc()).isEqualTo(crc(content));
+		Inflater inflater = new Inflater(true);
+		inflater.setInput(entry.getRawContent());
+		byte[] inflated = new byte[content.length];
+		assertThat(inflater.inflate(inflated)).isEqualTo(content.length);
+		inflater.end();
+		assertThat(inflated).isEqualTo(content);
+	}
+
+	@Test
+	void wrapperJarIsStored() {
+		byte[] content = bytes("PK-not-really-a-jar");
+		PrecompressedEntries.Entry entry = this.entries.get("demo/.mvn/wrapper/maven-wrapper.jar", content);
+		ZipArchiveEntry zipEntry = new ZipArchiveEntry("demo/.mvn/wrapper/maven-wrapper.jar");
+		entry.applyTo(zipEntry);
+		assertThat(zipEntry.getMethod()).isEqualTo(ZipEntry.STORED);
+		assertThat(zipEntry.getCompressedSize()).isEqualTo(content.length);
+		assertThat(entry.getRawContent()).isEqualTo(content);
+	}
+
+	@Test
+	void sameContentIsCompressedOnce() {
+		PrecompressedEntries.Entry first = this.entries.get("one/gradlew", bytes("#!/bin/sh"));
+		PrecompressedEntries.Entry second = this.entries.get("two/gradlew", bytes("#!/bin/sh"));
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void differentContentIsNotShared() {
+		PrecompressedEntries.Entry first = this.entries.get("demo/.gitignore", bytes("target/"));
+		PrecompressedEntries.Entry second = this.entries.get("demo/.gitignore", bytes("build/"));
+		assertThat(second).isNotSameAs(first);
+		assertThat(this.entries.get("demo/.gitignore", bytes("build/"))).isSameAs(second);
+	}
+
+	@Test
+	void newContentIsCachedOnceLimitIsReached() {
+		PrecompressedEntries entries = new PrecompressedEntries(2);
+		entries.get("demo/.gitignore", bytes("one"));
+		entries.get("demo/.gitignore", bytes("two"));
+		PrecompressedEntries.Entry entry = entries.get("demo/.gitignore", bytes("three"));
+		assertThat(entries.get("demo/.gitignore", bytes("three"))).isSameAs(entry);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		PrecompressedEntries entries = new PrecompressedEntries(2);
+		PrecompressedEntries.Entry one = entries.get("demo/.gitignore", bytes("one"));
+		PrecompressedEntries.Entry two = entries.get("demo/.gitignore", bytes("two"));
+		assertThat(entries.get("demo/.gitignore", bytes("one"))).isSameAs(one);
+		entries.get("demo/.gitignore", bytes("three"));
+		assertThat(entries.get("demo/.gitignore", bytes("one"))).isSameAs(one);
+		assertThat(entries.get("demo/.gitignore", bytes("two"))).isNotSameAs(two);
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static long crc(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+}
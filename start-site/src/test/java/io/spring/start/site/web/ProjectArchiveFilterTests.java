@@ -0,0 +1,239 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import javax.servlet.FilterChain;
+
+import io.spring.initializr.generator.language.java.JavaLanguage;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import io.spring.start.site.web.ProjectArchiveGenerator.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link ProjectArchiveFilter}.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectArchiveFilterTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "web", "actuator").build();
+
+	private final InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers = mock(ObjectProvider.class);
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	private final ProjectArchiveGenerator archiveGenerator = mock(ProjectArchiveGenerator.class);
+
+	private final FilterChain filterChain = mock(FilterChain.class);
+
+	private final ConcurrentMapCache previewCache = new ConcurrentMapCache("previews");
+
+	private final ProjectArchiveFilter filter = new ProjectArchiveFilter(this.metadataProvider,
+			this.descriptionCustomizers, this.eventPublisher, this.archiveGenerator, new ConcurrentMapCache("test"),
+			this.previewCache);
+
+	@BeforeEach
+	void setup() throws IOException {
+		given(this.metadataProvider.get()).willReturn(this.metadata);
+		given(this.descriptionCustomizers.orderedStream()).willAnswer((invocation) -> Stream.empty());
+		willAnswer((invocation) -> {
+			OutputStream out = invocation.getArgument(2);
+			out.write("archive".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).given(this.archiveGenerator).generate(any(ProjectRequest.class), any(Format.class), any(OutputStream.class));
+	}
+
+	@Test
+	void archiveIsStreamedWithHeaders() throws Exception {
+		MockHttpServletRequest request = createRequest("/starter.tgz", "web");
+		request.setParameter("artifactId", "my-project");
+		MockHttpServletResponse response = invoke(request);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo("application/x-compress");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+				.isEqualTo("attachment; filename=\"my-project.tar.gz\"");
+		assertThat(response.getContentAsString()).isEqualTo("archive");
+		verify(this.archiveGenerator).generate(any(ProjectRequest.class), eq(Format.TGZ), any(OutputStream.class));
+		verifyZeroInteractions(this.filterChain);
+	}
+
+	@Test
+	void sameRequestIsServedFromCache() throws Exception {
+		MockHttpServletResponse first = invoke(createRequest("/starter.zip", "web,actuator"));
+		MockHttpServletResponse second = invoke(createRequest("/starter.zip", "web,actuator"));
+		verify(this.archiveGenerator, times(1)).generate(any(ProjectRequest.class), eq(Format.ZIP),
+				any(OutputStream.class));
+		assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray()).isNotEmpty();
+		assertThat(second.getContentType()).isEqualTo("application/zip");
+		assertThat(second.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"demo.zip\"");
+		verify(this.eventPublisher).publishEvent(any(ProjectGeneratedEvent.class));
+	}
+
+	@Test
+	void differentRequestsAreNotShared() throws Exception {
+		invoke(createRequest("/starter.zip", "web,actuator"));
+		invoke(createRequest("/starter.zip", "web"));
+		invoke(createRequest("/starter.tgz", "web"));
+		verify(this.archiveGenerator, times(3)).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	@Test
+	void requestsWithSameCustomizedDescriptionAreShared() throws Exception {
+		ProjectDescriptionCustomizer customizer = (description) -> description.setLanguage(new JavaLanguage("1.8"));
+		given(this.descriptionCustomizers.orderedStream()).willAnswer((invocation) -> Stream.of(customizer));
+		MockHttpServletRequest first = createRequest("/starter.zip", "web");
+		first.setParameter("javaVersion", "11");
+		invoke(first);
+		MockHttpServletRequest second = createRequest("/starter.zip", "web");
+		second.setParameter("javaVersion", "1.8");
+		invoke(second);
+		verify(this.archiveGenerator, times(1)).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	@Test
+	void failedGenerationIsNotCached() throws Exception {
+		willThrow(new IllegalStateException("test")).given(this.archiveGenerator).generate(any(ProjectRequest.class),
+				any(Format.class), any(OutputStream.class));
+		assertThatIllegalStateException().isThrownBy(() -> invoke(createRequest("/starter.zip", "web")));
+		assertThatIllegalStateException().isThrownBy(() -> invoke(createRequest("/starter.zip", "web")));
+		verify(this.archiveGenerator, times(2)).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	@Test
+	void archiveIsWrittenFromPreview() throws Exception {
+		MockHttpServletRequest request = createRequest("/starter.zip", "web");
+		ProjectRequestResolver requestResolver = new ProjectRequestResolver(this.descriptionCustomizers);
+		GeneratedProject preview = new GeneratedProject(Collections.emptyList());
+		this.previewCache.put(requestResolver.computeKey(requestResolver.bind(request, this.metadata), this.metadata),
+				preview);
+		willAnswer((invocation) -> {
+			OutputStream out = invocation.getArgument(2);
+			out.write("preview".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).given(this.archiveGenerator).write(any(GeneratedProject.class), any(Format.class), any(OutputStream.class));
+		MockHttpServletResponse response = invoke(request);
+		assertThat(response.getContentAsString()).isEqualTo("preview");
+		verify(this.archiveGenerator).write(eq(preview), eq(Format.ZIP), any(OutputStream.class));
+		verify(this.eventPublisher).publishEvent(any(ProjectGeneratedEvent.class));
+		verify(this.archiveGenerator, never()).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	@Test
+	void invalidRequestIsHandledByFilterChain() throws Exception {
+		MockHttpServletRequest request = createRequest("/starter.zip", "does-not-exist");
+		MockHttpServletResponse response = invoke(request);
+		verify(this.filterChain).doFilter(request, response);
+		verify(this.archiveGenerator, never()).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	@Test
+	void requestHeadersAreAvailableToGeneratedEvent() throws Exception {
+		MockHttpServletRequest first = createRequest("/starter.zip", "web");
+		first.addHeader("User-Agent", "SpringBootCli/2.1.7.RELEASE");
+		invoke(first);
+		ArgumentCaptor<ProjectRequest> projectRequest = ArgumentCaptor.forClass(ProjectRequest.class);
+		verify(this.archiveGenerator).generate(projectRequest.capture(), eq(Format.ZIP), any(OutputStream.class));
+		assertThat(((WebProjectRequest) projectRequest.getValue()).getParameters()).containsEntry("User-Agent",
+				"SpringBootCli/2.1.7.RELEASE");
+		MockHttpServletRequest second = createRequest("/starter.zip", "web");
+		second.addHeader("User-Agent", "curl/7.64.1");
+		invoke(second);
+		ArgumentCaptor<ProjectGeneratedEvent> event = ArgumentCaptor.forClass(ProjectGeneratedEvent.class);
+		verify(this.eventPublisher).publishEvent(event.capture());
+		assertThat(((WebProjectRequest) event.getValue().getProjectRequest()).getParameters())
+				.containsEntry("User-Agent", "curl/7.64.1");
+	}
+
+	@Test
+	void legacyStyleParameterIsRejected() throws Exception {
+		MockHttpServletRequest request = createRequest("/starter.zip", null);
+		request.setParameter("style", "web");
+		MockHttpServletResponse response = invoke(request);
+		assertThat(response.getStatus()).isEqualTo(400);
+		assertThat(response.getErrorMessage()).isEqualTo("Dependencies must be specified using 'dependencies'");
+		verifyZeroInteractions(this.filterChain, this.archiveGenerator, this.eventPublisher);
+	}
+
+	@Test
+	void metadataUpdateClearsCache() throws Exception {
+		invoke(createRequest("/starter.zip", "web"));
+		this.filter.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, this.metadata));
+		invoke(createRequest("/starter.zip", "web"));
+		verify(this.archiveGenerator, times(2)).generate(any(ProjectRequest.class), any(Format.class),
+				any(OutputStream.class));
+	}
+
+	private MockHttpServletRequest createRequest(String path, String dependencies) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		if (dependencies != null) {
+			request.setParameter("dependencies", dependencies);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse invoke(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.filterChain);
+		return response;
+	}
+
+}
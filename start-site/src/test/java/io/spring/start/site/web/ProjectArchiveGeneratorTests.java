@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ResolvedProjectDescription;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.web.ProjectArchiveGenerator.Format;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ProjectArchiveGenerator}.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectArchiveGeneratorTests {
+
+	private final ProjectGenerationInvoker invoker = mock(ProjectGenerationInvoker.class);
+
+	private final ProjectRequest request = new ProjectRequest();
+
+	@Test
+	void generateZip(@TempDir Path rootDirectory) throws IOException {
+		ProjectGenerationResult result = createProject(rootDirectory);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ProjectArchiveGenerator(this.invoker).generate(this.request, Format.ZIP, out);
+		Map<String, Integer> modes = new LinkedHashMap<>();
+		try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(out.toByteArray()))) {
+			for (ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+				modes.put(entry.getName(), entry.getUnixMode());
+			}
+			ZipArchiveEntry pom = zip.getEntry("demo/pom.xml");
+			assertThat(StreamUtils.copyToByteArray(zip.getInputStream(pom))).isEqualTo("<project/>".getBytes());
+		}
+		assertThat(modes).containsEntry("demo/", 040755).containsEntry("demo/mvnw", 0100755)
+				.containsEntry("demo/pom.xml", 0100644).hasSize(3);
+		verify(this.invoker).cleanTempFiles(result.getRootDirectory());
+	}
+
+	@Test
+	void generateTgz(@TempDir Path rootDirectory) throws IOException {
+		ProjectGenerationResult result = createProject(rootDirectory);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ProjectArchiveGenerator(this.invoker).generate(this.request, Format.TGZ, out);
+		Map<String, Integer> modes = new LinkedHashMap<>();
+		try (ArchiveInputStream in = new TarArchiveInputStream(
+				new GzipCompressorInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+			ArchiveEntry entry;
+			while ((entry = in.getNextEntry()) != null) {
+				modes.put(entry.getName(), ((TarArchiveEntry) entry).getMode());
+				if (entry.getName().equals("demo/pom.xml")) {
+					assertThat(StreamUtils.copyToByteArray(in)).isEqualTo("<project/>".getBytes());
+				}
+			}
+		}
+		assertThat(modes).containsEntry("demo/", 040755).containsEntry("demo/mvnw", 0100755)
+				.containsEntry("demo/pom.xml", 0100644).hasSize(3);
+		verify(this.invoker).cleanTempFiles(result.getRootDirectory());
+	}
+
+	@Test
+	void generateZipWithPrecompressedEntries(@TempDir Path rootDirectory) throws IOException {
+		createProject(rootDirectory);
+		Path wrapperDirectory = Files.createDirectories(rootDirectory.resolve("demo/.mvn/wrapper"));
+		Files.write(wrapperDirectory.resolve("maven-wrapper.jar"), "jar".getBytes());
+		ProjectArchiveGenerator generator = new ProjectArchiveGenerator(this.invoker);
+		GeneratedProject project = generator.generate(this.request);
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			generator.write(project, Format.ZIP, out);
+			try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(out.toByteArray()))) {
+				ZipArchiveEntry mvnw = zip.getEntry("demo/mvnw");
+				assertThat(mvnw.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+				assertThat(mvnw.getUnixMode()).isEqualTo(0100755);
+				assertThat(StreamUtils.copyToByteArray(zip.getInputStream(mvnw))).isEqualTo("#!/bin/sh".getBytes());
+				ZipArchiveEntry jar = zip.getEntry("demo/.mvn/wrapper/maven-wrapper.jar");
+				assertThat(jar.getMethod()).isEqualTo(ZipEntry.STORED);
+				assertThat(StreamUtils.copyToByteArray(zip.getInputStream(jar))).isEqualTo("jar".getBytes());
+			}
+			try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+				Map<String, byte[]> contents = new LinkedHashMap<>();
+				ZipEntry entry;
+				while ((entry = in.getNextEntry()) != null) {
+					contents.put(entry.getName(), StreamUtils.copyToByteArray(in));
+				}
+				assertThat(contents).containsKeys("demo/", "demo/mvnw", "demo/pom.xml",
+						"demo/.mvn/wrapper/maven-wrapper.jar");
+				assertThat(contents.get("demo/mvnw")).isEqualTo("#!/bin/sh".getBytes());
+			}
+		}
+	}
+
+	@Test
+	void generateProject(@TempDir Path rootDirectory) throws IOException {
+		ProjectGenerationResult result = createProject(rootDirectory);
+		GeneratedProject project = new ProjectArchiveGenerator(this.invoker).generate(this.request);
+		assertThat(project.getEntries()).extracting(GeneratedProject.Entry::getName).containsOnly("demo/", "demo/mvnw",
+				"demo/pom.xml");
+		assertThat(project.getFile("demo/pom.xml").getContent()).isEqualTo("<project/>".getBytes());
+		assertThat(project.getFile("demo/mvnw").getMode()).isEqualTo(0100755);
+		assertThat(project.getFile("demo/")).isNull();
+		verify(this.invoker).cleanTempFiles(result.getRootDirectory());
+	}
+
+	private ProjectGenerationResult createProject(Path rootDirectory) throws IOException {
+		Path projectDirectory = Files.createDirectories(rootDirectory.resolve("demo"));
+		Files.write(projectDirectory.resolve("mvnw"), "#!/bin/sh".getBytes());
+		Files.write(projectDirectory.resolve("pom.xml"), "<project/>".getBytes());
+		ProjectDescription description = new ProjectDescription();
+		description.setBuildSystem(new MavenBuildSystem());
+		description.setBaseDirectory("demo");
+		ProjectGenerationResult result = mock(ProjectGenerationResult.class);
+		given(result.getProjectDescription()).willReturn(new ResolvedProjectDescription(description));
+		given(result.getRootDirectory()).willReturn(rootDirectory);
+		given(this.invoker.invokeProjectStructureGeneration(this.request)).willReturn(result);
+		return result;
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.FilterChain;
+
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.mapper.InitializrMetadataV21JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV2JsonMapper;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link ProjectMetadataFilter}.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectMetadataFilterTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "web", "actuator").build();
+
+	private final InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+
+	private final FilterChain filterChain = mock(FilterChain.class);
+
+	private final ProjectMetadataFilter filter = new ProjectMetadataFilter(this.metadataProvider);
+
+	@BeforeEach
+	void setup() {
+		given(this.metadataProvider.get()).willReturn(this.metadata);
+	}
+
+	@Test
+	void metadataV21IsServed() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("application/vnd.initializr.v2.1+json"));
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo("application/vnd.initializr.v2.1+json;charset=UTF-8");
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(this.metadata, "http://localhost"));
+		assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"").endsWith("\"");
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=7200");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		verifyZeroInteractions(this.filterChain);
+	}
+
+	@Test
+	void metadataV2IsServed() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("application/vnd.initializr.v2+json"));
+		assertThat(response.getContentType()).isEqualTo("application/vnd.initializr.v2+json;charset=UTF-8");
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV2JsonMapper().write(this.metadata, "http://localhost"));
+	}
+
+	@Test
+	void metadataWithJsonIsServedWithV21() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("application/json"));
+		assertThat(response.getContentType()).isEqualTo("application/vnd.initializr.v2.1+json;charset=UTF-8");
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(this.metadata, "http://localhost"));
+	}
+
+	@Test
+	void metadataWithForceSslUsesHttps() throws Exception {
+		this.metadata.getConfiguration().getEnv().setForceSsl(true);
+		MockHttpServletResponse response = invoke(createRequest("application/json"));
+		assertThat(response.getContentAsString()).contains("https://localhost/starter.zip")
+				.doesNotContain("http://localhost");
+	}
+
+	@Test
+	void metadataIsServedGzippedIfAccepted() throws Exception {
+		MockHttpServletRequest request = createRequest("application/vnd.initializr.v2.1+json");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		MockHttpServletResponse response = invoke(request);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo("Accept, Accept-Encoding");
+		assertThat(gunzip(response.getContentAsByteArray()))
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(this.metadata, "http://localhost"));
+		MockHttpServletResponse identity = invoke(createRequest("application/vnd.initializr.v2.1+json"));
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(identity.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void metadataWithMatchingETagIsNotModified() throws Exception {
+		MockHttpServletResponse first = invoke(createRequest("application/json"));
+		MockHttpServletRequest request = createRequest("application/json");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+		MockHttpServletResponse second = invoke(request);
+		assertThat(second.getStatus()).isEqualTo(304);
+		assertThat(second.getContentAsByteArray()).isEmpty();
+		assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void metadataIsServedUntilUpdated() throws Exception {
+		String initial = invoke(createRequest("application/json")).getContentAsString();
+		InitializrMetadata updated = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", "web", "actuator", "security").build();
+		given(this.metadataProvider.get()).willReturn(updated);
+		assertThat(invoke(createRequest("application/json")).getContentAsString()).isEqualTo(initial);
+		this.filter.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, updated));
+		assertThat(invoke(createRequest("application/json")).getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(updated, "http://localhost"));
+	}
+
+	@Test
+	void metadataIsServedPerApplicationUrl() throws Exception {
+		invoke(createRequest("application/json"));
+		MockHttpServletRequest request = createRequest("application/json");
+		request.setServerName("start.example.com");
+		assertThat(invoke(request).getContentAsString()).contains("http://start.example.com/starter.zip");
+	}
+
+	@Test
+	void metadataWithHalJsonIsServedWithV21() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("application/hal+json"));
+		assertThat(response.getContentType()).isEqualTo("application/hal+json;charset=UTF-8");
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(this.metadata, "http://localhost"));
+	}
+
+	@Test
+	void metadataIsCachedOnceManyApplicationUrlsHaveBeenSeen() throws Exception {
+		for (int i = 0; i < 64; i++) {
+			MockHttpServletRequest request = createRequest("application/json");
+			request.setServerName("start" + i + ".example.com");
+			invoke(request);
+		}
+		MockHttpServletResponse first = invoke(createRequest("application/json"));
+		given(this.metadataProvider.get()).willReturn(InitializrMetadataTestBuilder.withDefaults().build());
+		MockHttpServletResponse second = invoke(createRequest("application/json"));
+		assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void cacheBusterIsIgnored() throws Exception {
+		MockHttpServletResponse first = invoke(createRequest("application/json"));
+		MockHttpServletRequest request = createRequest("application/json");
+		request.setQueryString("t=1566296171000");
+		request.setParameter("t", "1566296171000");
+		MockHttpServletResponse second = invoke(request);
+		assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+		assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+	}
+
+	@Test
+	void versionedPathIsServedImmutable() throws Exception {
+		String path = this.filter.getVersionedPath(createRequest(null));
+		assertThat(path).startsWith("/metadata/client/");
+		MockHttpServletResponse response = invoke(createRequest(path, "application/vnd.initializr.v2.1+json"));
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(this.metadata, "http://localhost"));
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=31536000, public, immutable");
+	}
+
+	@Test
+	void versionedPathWithoutAcceptIsServedWithV21() throws Exception {
+		String path = this.filter.getVersionedPath(createRequest(null));
+		MockHttpServletResponse response = invoke(createRequest(path, null));
+		assertThat(response.getContentType()).isEqualTo("application/vnd.initializr.v2.1+json;charset=UTF-8");
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=31536000, public, immutable");
+		verifyZeroInteractions(this.filterChain);
+	}
+
+	@Test
+	void staleVersionedPathIsServedWithCurrentMetadata() throws Exception {
+		String path = this.filter.getVersionedPath(createRequest(null));
+		InitializrMetadata updated = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", "web", "actuator", "security").build();
+		given(this.metadataProvider.get()).willReturn(updated);
+		this.filter.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, updated));
+		assertThat(this.filter.getVersionedPath(createRequest(null))).isNotEqualTo(path);
+		MockHttpServletResponse response = invoke(createRequest(path, "application/vnd.initializr.v2.1+json"));
+		assertThat(response.getContentAsString())
+				.isEqualTo(new InitializrMetadataV21JsonMapper().write(updated, "http://localhost"));
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=7200");
+	}
+
+	@Test
+	void htmlRequestIsHandledByTheChain() throws Exception {
+		assertHandledByTheChain(createRequest("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+	}
+
+	@Test
+	void wildcardRequestIsHandledByTheChain() throws Exception {
+		assertHandledByTheChain(createRequest("*/*"));
+	}
+
+	@Test
+	void requestWithoutAcceptIsHandledByTheChain() throws Exception {
+		assertHandledByTheChain(createRequest(null));
+	}
+
+	@Test
+	void requestWithInvalidAcceptIsHandledByTheChain() throws Exception {
+		assertHandledByTheChain(createRequest("not a media type"));
+	}
+
+	@Test
+	void postRequestIsHandledByTheChain() throws Exception {
+		MockHttpServletRequest request = createRequest("application/json");
+		request.setMethod("POST");
+		assertHandledByTheChain(request);
+	}
+
+	private void assertHandledByTheChain(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = invoke(request);
+		verify(this.filterChain).doFilter(any(), any());
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	private MockHttpServletRequest createRequest(String accept) {
+		return createRequest("/", accept);
+	}
+
+	private MockHttpServletRequest createRequest(String path, String accept) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		if (accept != null) {
+			request.addHeader(HttpHeaders.ACCEPT, accept);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse invoke(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.filterChain);
+		return response;
+	}
+
+	private static String gunzip(byte[] content) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			return new String(StreamUtils.copyToByteArray(in), "UTF-8");
+		}
+	}
+
+}
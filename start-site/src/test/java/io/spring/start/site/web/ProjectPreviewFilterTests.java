@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import javax.servlet.FilterChain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.support.InitializrMetadataUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link ProjectPreviewFilter}.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectPreviewFilterTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "web", "actuator").build();
+
+	private final InitializrMetadataProvider metadataProvider = mock(InitializrMetadataProvider.class);
+
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers = mock(ObjectProvider.class);
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	private final ProjectArchiveGenerator archiveGenerator = mock(ProjectArchiveGenerator.class);
+
+	private final FilterChain filterChain = mock(FilterChain.class);
+
+	private final ProjectPreviewFilter filter = new ProjectPreviewFilter(this.metadataProvider,
+			this.descriptionCustomizers, this.eventPublisher, this.archiveGenerator, new ConcurrentMapCache("test"));
+
+	@BeforeEach
+	void setup() throws IOException {
+		given(this.metadataProvider.get()).willReturn(this.metadata);
+		given(this.descriptionCustomizers.orderedStream()).willAnswer((invocation) -> Stream.empty());
+		given(this.archiveGenerator.generate(any(ProjectRequest.class))).willAnswer((invocation) -> createProject());
+	}
+
+	@Test
+	void previewListsFiles() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("/starter.preview", "web"));
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).startsWith("application/json");
+		JsonNode content = new ObjectMapper().readTree(response.getContentAsByteArray());
+		assertThat(content.get("id").asText()).hasSize(64);
+		assertThat(content.get("files")).hasSize(2);
+		assertThat(content.get("files").get(0).get("path").asText()).isEqualTo("demo/pom.xml");
+		assertThat(content.get("files").get(0).get("size").asInt()).isEqualTo(10);
+		assertThat(content.get("files").get(1).get("path").asText()).isEqualTo("demo/src/App.java");
+		verifyZeroInteractions(this.filterChain);
+	}
+
+	@Test
+	void generatedPreviewIsNotPublishedTwice() throws Exception {
+		invoke(createRequest("/starter.preview", "web"));
+		verify(this.archiveGenerator).generate(any(ProjectRequest.class));
+		verify(this.eventPublisher, never()).publishEvent(any(ProjectGeneratedEvent.class));
+	}
+
+	@Test
+	void sameRequestIsServedFromCache() throws Exception {
+		invoke(createRequest("/starter.preview", "web"));
+		invoke(createRequest("/starter.preview", "web"));
+		verify(this.archiveGenerator, times(1)).generate(any(ProjectRequest.class));
+		verify(this.eventPublisher, times(1)).publishEvent(any(ProjectGeneratedEvent.class));
+	}
+
+	@Test
+	void fileContentIsServed() throws Exception {
+		String id = getId(invoke(createRequest("/starter.preview", "web")));
+		MockHttpServletResponse response = invoke(createRequest("/starter.preview/" + id + "/demo/src/App.java", null));
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+		assertThat(response.getContentAsString()).isEqualTo("class App {}");
+		verify(this.archiveGenerator, times(1)).generate(any(ProjectRequest.class));
+	}
+
+	@Test
+	void unknownFileIsNotFound() throws Exception {
+		String id = getId(invoke(createRequest("/starter.preview", "web")));
+		assertThat(invoke(createRequest("/starter.preview/" + id + "/demo/src/", null)).getStatus()).isEqualTo(404);
+		assertThat(invoke(createRequest("/starter.preview/" + id + "/demo/README.md", null)).getStatus())
+				.isEqualTo(404);
+	}
+
+	@Test
+	void unknownProjectIsNotFound() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("/starter.preview/1234/demo/pom.xml", null));
+		assertThat(response.getStatus()).isEqualTo(404);
+	}
+
+	@Test
+	void invalidRequestIsRejected() throws Exception {
+		MockHttpServletResponse response = invoke(createRequest("/starter.preview", "does-not-exist"));
+		assertThat(response.getStatus()).isEqualTo(400);
+		verify(this.archiveGenerator, never()).generate(any(ProjectRequest.class));
+	}
+
+	@Test
+	void legacyStyleParameterIsRejected() throws Exception {
+		MockHttpServletRequest request = createRequest("/starter.preview", null);
+		request.setParameter("style", "web");
+		MockHttpServletResponse response = invoke(request);
+		assertThat(response.getStatus()).isEqualTo(400);
+		assertThat(response.getErrorMessage()).isEqualTo("Dependencies must be specified using 'dependencies'");
+		verify(this.archiveGenerator, never()).generate(any(ProjectRequest.class));
+	}
+
+	@Test
+	void metadataUpdateClearsCache() throws Exception {
+		String id = getId(invoke(createRequest("/starter.preview", "web")));
+		this.filter.onMetadataUpdated(new InitializrMetadataUpdatedEvent(this, this.metadata));
+		assertThat(invoke(createRequest("/starter.preview/" + id + "/demo/pom.xml", null)).getStatus()).isEqualTo(404);
+	}
+
+	private GeneratedProject createProject() {
+		return new GeneratedProject(Arrays.asList(new GeneratedProject.Entry("demo/", 040755, 0, null),
+				new GeneratedProject.Entry("demo/pom.xml", 0100644, 0, "<project/>".getBytes(StandardCharsets.UTF_8)),
+				new GeneratedProject.Entry("demo/src/", 040755, 0, null), new GeneratedProject.Entry(
+						"demo/src/App.java", 0100644, 0, "class App {}".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	private String getId(MockHttpServletResponse response) throws IOException {
+		return new ObjectMapper().readTree(response.getContentAsByteArray()).get("id").asText();
+	}
+
+	private MockHttpServletRequest createRequest(String path, String dependencies) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		if (dependencies != null) {
+			request.setParameter("dependencies", dependencies);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse invoke(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.filterChain);
+		return response;
+	}
+
+}
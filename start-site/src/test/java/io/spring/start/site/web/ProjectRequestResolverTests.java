@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.project.ProjectDescriptionCustomizer;
+import io.spring.initializr.generator.spring.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.InvalidProjectRequestException;
+import io.spring.initializr.web.project.WebProjectRequest;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ProjectRequestResolver}.
+ *
+ * @author Stephane Nicoll
+ */
+class ProjectRequestResolverTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+			.addDependencyGroup("test", "web", "actuator").build();
+
+	private final ProjectRequestResolver resolver = new ProjectRequestResolver(createDescriptionCustomizers());
+
+	@Test
+	void sameRequestsHaveSameKey() {
+		assertThat(computeKey("demo", "Demo project")).isEqualTo(computeKey("demo", "Demo project")).hasSize(64);
+	}
+
+	@Test
+	void fieldsShiftedAcrossNewLineHaveDifferentKeys() {
+		assertThat(computeKey("a\nb", "c")).isNotEqualTo(computeKey("a", "b\nc"));
+	}
+
+	@Test
+	void fieldsShiftedAcrossSeparatorHaveDifferentKeys() {
+		assertThat(computeKey("a1:b", "c")).isNotEqualTo(computeKey("a", "1:bc"));
+	}
+
+	@Test
+	void invalidRequestHasNoKey() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/starter.zip");
+		request.setParameter("dependencies", "does-not-exist");
+		assertThat(this.resolver.computeKey(this.resolver.bind(request, this.metadata), this.metadata)).isNull();
+	}
+
+	@Test
+	void bindMakesHeadersAvailableAsParameters() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/starter.zip");
+		request.addHeader("User-Agent", "SpringBootCli/2.1.7.RELEASE");
+		request.addHeader("X-Forwarded-For", "10.0.0.1");
+		request.setParameter("dependencies", "web");
+		WebProjectRequest projectRequest = this.resolver.bind(request, this.metadata);
+		assertThat(projectRequest.getParameters()).containsEntry("User-Agent", "SpringBootCli/2.1.7.RELEASE")
+				.containsEntry("X-Forwarded-For", "10.0.0.1");
+		assertThat(projectRequest.getDependencies()).containsExactly("web");
+	}
+
+	@Test
+	void bindWithLegacyStyleParameterIsRejected() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/starter.zip");
+		request.setParameter("style", "web");
+		assertThatExceptionOfType(InvalidProjectRequestException.class)
+				.isThrownBy(() -> this.resolver.bind(request, this.metadata))
+				.withMessage("Dependencies must be specified using 'dependencies'");
+	}
+
+	private String computeKey(String name, String description) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/starter.zip");
+		request.setParameter("dependencies", "web");
+		request.setParameter("name", name);
+		request.setParameter("description", description);
+		WebProjectRequest projectRequest = this.resolver.bind(request, this.metadata);
+		return this.resolver.computeKey(projectRequest, this.metadata);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ObjectProvider<ProjectDescriptionCustomizer> createDescriptionCustomizers() {
+		ObjectProvider<ProjectDescriptionCustomizer> descriptionCustomizers = mock(ObjectProvider.class);
+		given(descriptionCustomizers.orderedStream()).willAnswer((invocation) -> Stream.empty());
+		return descriptionCustomizers;
+	}
+
+}
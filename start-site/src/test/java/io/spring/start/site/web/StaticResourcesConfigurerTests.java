@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link StaticResourcesConfigurer}.
+ *
+ * @author Stephane Nicoll
+ */
+class StaticResourcesConfigurerTests {
+
+	private static final String IMMUTABLE = "max-age=31536000, public, immutable";
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigWebApplicationContext();
+		this.context.setServletContext(new MockServletContext());
+		this.context.register(TestConfiguration.class);
+		this.context.refresh();
+		this.mvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+	}
+
+	@AfterEach
+	void close() {
+		this.context.close();
+	}
+
+	@Test
+	void hashedScriptIsImmutable() throws Exception {
+		this.mvc.perform(get("/app-0123456789abcdef0123.js")).andExpect(status().isOk())
+				.andExpect(content().string("app")).andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void hashedStylesheetIsImmutable() throws Exception {
+		this.mvc.perform(get("/styles.0123456789abcdef0123.css")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void staticAssetIsImmutable() throws Exception {
+		this.mvc.perform(get("/static/logo.svg")).andExpect(status().isOk()).andExpect(content().string("<svg/>"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void assetWithoutHashIsNotImmutable() throws Exception {
+		this.mvc.perform(get("/sw.js")).andExpect(status().isOk()).andExpect(content().string("sw"))
+				.andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+	}
+
+	@Test
+	void brotliVariantIsPreferred() throws Exception {
+		this.mvc.perform(get("/app-0123456789abcdef0123.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+				.andExpect(status().isOk()).andExpect(content().string("app-brotli"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void gzipVariantIsServed() throws Exception {
+		this.mvc.perform(get("/app-0123456789abcdef0123.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk()).andExpect(content().string("app-gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+		this.mvc.perform(get("/sw.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+				.andExpect(status().isOk()).andExpect(content().string("sw-gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+	}
+
+	@Test
+	void missingVariantServesOriginal() throws Exception {
+		this.mvc.perform(get("/styles.0123456789abcdef0123.css").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+				.andExpect(status().isOk()).andExpect(content().string("styles"))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class TestConfiguration {
+
+		@Bean
+		StaticResourcesConfigurer staticResourcesConfigurer() {
+			return new StaticResourcesConfigurer("classpath:/io/spring/start/site/web/missing/",
+					"classpath:/io/spring/start/site/web/static/");
+		}
+
+	}
+
+}
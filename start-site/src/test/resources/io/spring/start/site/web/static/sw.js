@@ -0,0 +1 @@
+sw
\ No newline at end of file